@@ -0,0 +1,116 @@
+package com.reliaquest.api.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Client-side token bucket that learns the mock server's request budget from the 429s it receives.
+ *
+ * <p>The server lets a fixed (but unknown) number of requests through and then rejects everything until its backoff
+ * has elapsed since the last accepted request. The bucket therefore starts unbounded, shrinks its capacity to the
+ * number of calls that got through before a 429, and refills once the learned window has passed since the last grant.
+ */
+public class AdaptiveRateLimiter {
+
+    private final Clock clock;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private int capacity = Integer.MAX_VALUE;
+    private int granted;
+    private Instant lastGranted = Instant.MIN;
+    private Instant lastSucceeded;
+    private Duration window = Duration.ZERO;
+    private Instant blockedUntil = Instant.MIN;
+    private int consecutiveRejections;
+
+    public AdaptiveRateLimiter(Clock clock, Duration initialBackoff, Duration maxBackoff) {
+        this.clock = clock;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return {@link Duration#ZERO} when a token was taken, otherwise how long the caller should wait before asking
+     *     again
+     */
+    public synchronized Duration reserve() {
+        Duration wait = getWait();
+        if (!wait.isZero()) {
+            return wait;
+        }
+        if (granted >= capacity) {
+            granted = 0;
+        }
+        granted++;
+        lastGranted = clock.instant();
+        return Duration.ZERO;
+    }
+
+    /**
+     * How long {@link #reserve()} would ask a caller to wait right now, without taking a token.
+     */
+    public synchronized Duration getWait() {
+        Instant now = clock.instant();
+        if (now.isBefore(blockedUntil)) {
+            return Duration.between(now, blockedUntil);
+        }
+        if (granted >= capacity) {
+            Instant refillAt = lastGranted.plus(window);
+            if (now.isBefore(refillAt)) {
+                return Duration.between(now, refillAt);
+            }
+        }
+        return Duration.ZERO;
+    }
+
+    public synchronized void onSuccess() {
+        lastSucceeded = clock.instant();
+        consecutiveRejections = 0;
+    }
+
+    /**
+     * Records a 429 and blocks the bucket until the server is expected to accept requests again.
+     *
+     * @param retryAfter the server's {@code Retry-After}, or {@code null} to fall back to exponential backoff
+     */
+    public synchronized void onRateLimited(Duration retryAfter) {
+        Instant now = clock.instant();
+        consecutiveRejections++;
+
+        // Everything granted since the last refill got through except the call that was just rejected.
+        int accepted = granted - 1;
+        if (accepted > 0) {
+            capacity = accepted;
+        }
+
+        Duration backoff = retryAfter != null ? retryAfter : exponentialBackoff();
+        blockedUntil = now.plus(backoff);
+        Duration observedWindow = lastSucceeded == null ? backoff : Duration.between(lastSucceeded, blockedUntil);
+        if (observedWindow.compareTo(window) > 0) {
+            window = observedWindow;
+        }
+        granted = 0;
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized Duration getWindow() {
+        return window;
+    }
+
+    public synchronized Duration getBlockedFor() {
+        Instant now = clock.instant();
+        return now.isBefore(blockedUntil) ? Duration.between(now, blockedUntil) : Duration.ZERO;
+    }
+
+    private Duration exponentialBackoff() {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(consecutiveRejections - 1, 16));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -0,0 +1,158 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Single entry point for calls to the mock employee server. Every call takes a token from the shared
+ * {@link AdaptiveRateLimiter}; callers wait for short holds, are shed with {@link UpstreamRateLimitedException} for
+ * long ones, and 429s are retried after the server's {@code Retry-After} plus jitter.
+ *
+ * <p>Each attempt is timed in {@code upstream.requests}, tagged with the operation and its outcome. 429s, retries and
+ * calls shed before they were sent are counted in {@code upstream.rate.limited}, {@code upstream.retries} and
+ * {@code upstream.shed}.
+ */
+@Slf4j
+@Component
+public class UpstreamClient {
+
+    private static final DefaultResponseErrorHandler ERROR_HANDLER = new DefaultResponseErrorHandler();
+
+    private final RestClient restClient;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final Duration maxWait;
+    private final int maxRetries;
+    private final Duration maxJitter;
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamClient(
+            RestClient upstreamRestClient,
+            MeterRegistry meterRegistry,
+            @Value("${upstream.rate-limit.max-wait:2s}") Duration maxWait,
+            @Value("${upstream.rate-limit.max-retries:2}") int maxRetries,
+            @Value("${upstream.rate-limit.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${upstream.rate-limit.max-backoff:90s}") Duration maxBackoff,
+            @Value("${upstream.rate-limit.max-jitter:250ms}") Duration maxJitter) {
+        this.restClient = upstreamRestClient;
+        this.rateLimiter = new AdaptiveRateLimiter(Clock.systemUTC(), initialBackoff, maxBackoff);
+        this.maxWait = maxWait;
+        this.maxRetries = maxRetries;
+        this.maxJitter = maxJitter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T call(String operation, Function<RestClient, T> request) {
+        return call(operation, maxWait, request);
+    }
+
+    /**
+     * @param operation human readable name of the call, used in logs, errors and as the {@code operation} metric tag,
+     *     so it must not contain ids or other unbounded values
+     * @param maxWait longest the caller is prepared to be held for a token before the call is shed
+     */
+    public <T> T call(String operation, Duration maxWait, Function<RestClient, T> request) {
+        for (int attempt = 0; ; attempt++) {
+            awaitToken(operation, maxWait);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                T result = request.apply(restClient);
+                sample.stop(timer(operation, "success"));
+                rateLimiter.onSuccess();
+                return result;
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                sample.stop(timer(operation, "rate_limited"));
+                meterRegistry
+                        .counter("upstream.rate.limited", "operation", operation)
+                        .increment();
+                rateLimiter.onRateLimited(retryAfter(e.getResponseHeaders()));
+                log.warn(
+                        "Rate limited while trying to {} (attempt {}), learned budget {} per {}",
+                        operation,
+                        attempt + 1,
+                        rateLimiter.getCapacity(),
+                        rateLimiter.getWindow());
+                if (attempt >= maxRetries) {
+                    throw new UpstreamRateLimitedException(operation, rateLimiter.getBlockedFor());
+                }
+                meterRegistry
+                        .counter("upstream.retries", "operation", operation)
+                        .increment();
+            } catch (RestClientException e) {
+                sample.stop(timer(operation, "error"));
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * How long a call made now would be held for the learned rate limit, without taking a token. Lets optional work
+     * such as background refreshes stay out of the way of requests.
+     */
+    public Duration getRateLimitWait() {
+        return rateLimiter.getWait();
+    }
+
+    /**
+     * Applies the default status handling to responses read with {@code exchange}, which otherwise skips it.
+     */
+    public static void throwIfError(ClientHttpResponse response) throws IOException {
+        if (ERROR_HANDLER.hasError(response)) {
+            ERROR_HANDLER.handleError(response);
+        }
+    }
+
+    private void awaitToken(String operation, Duration maxWait) {
+        Duration wait;
+        while (!(wait = rateLimiter.reserve()).isZero()) {
+            if (wait.compareTo(maxWait) > 0) {
+                meterRegistry.counter("upstream.shed", "operation", operation).increment();
+                throw new UpstreamRateLimitedException(operation, wait);
+            }
+            sleep(wait.plusMillis(ThreadLocalRandom.current().nextLong(maxJitter.toMillis() + 1)));
+        }
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("upstream.requests")
+                .description("Calls to the mock employee server, excluding time spent waiting for the rate limit")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Duration retryAfter(HttpHeaders headers) {
+        String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the upstream rate limit", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.reliaquest.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache regions used alongside the employee snapshot. Each region is bounded by size and TTL and records hit/miss
+ * statistics; unknown region names are rejected rather than created on the fly.
+ */
+@Configuration
+public class CacheConfiguration {
+
+    /** Employees fetched individually because they weren't in the snapshot yet. */
+    public static final String EMPLOYEE_BY_ID = "employeeById";
+
+    /** Ids the upstream recently reported unknown, so repeated lookups don't spend the rate limit. */
+    public static final String EMPLOYEE_NOT_FOUND = "employeeNotFound";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${employee.cache.by-id.max-size:10000}") long byIdMaxSize,
+            @Value("${employee.cache.by-id.ttl:5m}") Duration byIdTtl,
+            @Value("${employee.cache.not-found.max-size:10000}") long notFoundMaxSize,
+            @Value("${employee.cache.not-found.ttl:30s}") Duration notFoundTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(EMPLOYEE_BY_ID, region(byIdMaxSize, byIdTtl));
+        cacheManager.registerCustomCache(EMPLOYEE_NOT_FOUND, region(notFoundMaxSize, notFoundTtl));
+        cacheManager.setCacheNames(List.of());
+        return cacheManager;
+    }
+
+    private static Cache<Object, Object> region(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.reliaquest.api.config;
+
+import com.reliaquest.api.service.EmployeeCacheService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics that aren't recorded where the work happens. Controller latency ({@code http.server.requests}) and the
+ * cache regions ({@code cache.gets}, {@code cache.evictions}, ...) are bound by Spring Boot, and upstream calls are
+ * timed by {@link com.reliaquest.api.client.UpstreamClient}; all of them are served from {@code /actuator/metrics}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MeterBinder employeeSnapshotMetrics(EmployeeCacheService cacheService) {
+        return registry -> {
+            Gauge.builder("employee.snapshot.size", cacheService, EmployeeCacheService::getSnapshotSize)
+                    .description("Employees in the current snapshot")
+                    .register(registry);
+            Gauge.builder("employee.snapshot.memory", cacheService, EmployeeCacheService::getSnapshotBytes)
+                    .description("Estimated memory held by the current snapshot, on and off the heap")
+                    .baseUnit(BaseUnits.BYTES)
+                    .register(registry);
+            TimeGauge.builder(
+                            "employee.snapshot.age",
+                            cacheService,
+                            TimeUnit.MILLISECONDS,
+                            service -> service.getSnapshotAge().toMillis())
+                    .description("Time since the current snapshot was fetched from the mock server")
+                    .register(registry);
+        };
+    }
+}
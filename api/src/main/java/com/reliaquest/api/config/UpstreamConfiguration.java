@@ -0,0 +1,60 @@
+package com.reliaquest.api.config;
+
+import java.time.Duration;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * The one HTTP transport used for calls to the mock employee server: a pooled Apache HttpClient that keeps
+ * connections alive between calls, enforces connect/read timeouts, and negotiates gzip with transparent, streaming
+ * decompression (HttpClient's default content compression handling).
+ */
+@Configuration
+public class UpstreamConfiguration {
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory upstreamRequestFactory(
+            @Value("${upstream.http.max-connections:50}") int maxConnections,
+            @Value("${upstream.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${upstream.http.read-timeout:10s}") Duration readTimeout,
+            @Value("${upstream.http.idle-timeout:30s}") Duration idleTimeout) {
+        var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+        var httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean
+    public RestClient upstreamRestClient(
+            RestClient.Builder builder,
+            HttpComponentsClientHttpRequestFactory upstreamRequestFactory,
+            @Value("${upstream.base-url:http://localhost:8112/api/v1/}") String baseUrl) {
+        return builder.baseUrl(baseUrl)
+                .requestFactory(upstreamRequestFactory)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+}
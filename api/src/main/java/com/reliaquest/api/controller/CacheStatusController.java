@@ -0,0 +1,25 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.dto.CacheStatus;
+import com.reliaquest.api.service.EmployeeCacheService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+public class CacheStatusController {
+
+    private final EmployeeCacheService cacheService;
+
+    public CacheStatusController(EmployeeCacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @GetMapping()
+    public ResponseEntity<CacheStatus> getCacheStatus() {
+        return new ResponseEntity<>(cacheService.getStatus(), HttpStatus.OK);
+    }
+}
@@ -2,13 +2,16 @@ package com.reliaquest.api.controller;
 
 import com.reliaquest.api.dto.Employee;
 import com.reliaquest.api.dto.EmployeeRequest;
+import com.reliaquest.api.service.EmployeeCacheService;
 import com.reliaquest.api.service.EmployeeService;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.function.Supplier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/employee")
@@ -16,39 +19,47 @@ import org.springframework.web.bind.annotation.*;
 public class EmployeControllerImpl implements IEmployeeController<Employee, EmployeeRequest> {
 
     private final EmployeeService employeeService;
+    private final EmployeeCacheService cacheService;
+    private final WebRequest webRequest;
 
-    public EmployeControllerImpl(EmployeeService employeeService) {
+    public EmployeControllerImpl(
+            EmployeeService employeeService, EmployeeCacheService cacheService, WebRequest webRequest) {
         this.employeeService = employeeService;
+        this.cacheService = cacheService;
+        this.webRequest = webRequest;
     }
 
     @Override
     public ResponseEntity<List<Employee>> getAllEmployees() {
-        List<Employee> employees = employeeService.findAll();
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+        return conditionalGet(employeeService::findAll);
     }
 
+    /**
+     * Tagged only when the employee is in the snapshot. Employees looked up upstream, and the caches of those lookups,
+     * aren't covered by the snapshot's version, so their answers carry no ETag.
+     */
     @Override
     public ResponseEntity<Employee> getEmployeeById(@Valid @PathVariable String id) {
-        Employee employee = employeeService.findById(id);
-        return new ResponseEntity<>(employee, HttpStatus.OK);
+        String etag = cacheService.getETag();
+        if (etag == null || cacheService.getSnapshot().findById(id).isEmpty()) {
+            return new ResponseEntity<>(employeeService.findById(id), HttpStatus.OK);
+        }
+        return conditionalGet(etag, () -> employeeService.findById(id));
     }
 
     @Override
     public ResponseEntity<List<Employee>> getEmployeesByNameSearch(@Valid @PathVariable String searchString) {
-        List<Employee> employeesList = employeeService.findByName(searchString);
-        return new ResponseEntity<>(employeesList, HttpStatus.OK);
+        return conditionalGet(() -> employeeService.findByName(searchString));
     }
 
     @Override
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
-        Integer highestSalary = employeeService.getHighestSalaryOfEmployees();
-        return new ResponseEntity<>(highestSalary, HttpStatus.OK);
+        return conditionalGet(employeeService::getHighestSalaryOfEmployees);
     }
 
     @Override
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
-        List<String> topTen = employeeService.findTopTenHighestEarningEmployeeNames();
-        return new ResponseEntity<>(topTen, HttpStatus.OK);
+        return conditionalGet(employeeService::findTopTenHighestEarningEmployeeNames);
     }
 
     @Override
@@ -62,4 +73,22 @@ public class EmployeControllerImpl implements IEmployeeController<Employee, Empl
         String msg = employeeService.delete(id);
         return new ResponseEntity<>(msg, HttpStatus.ACCEPTED);
     }
+
+    /**
+     * Answers a read with 304 Not Modified when the caller's {@code If-None-Match} matches the snapshot's ETag, without
+     * running the query. The tag is read first, so it can only ever be older than the data it's sent with.
+     */
+    private <T> ResponseEntity<T> conditionalGet(Supplier<T> query) {
+        return conditionalGet(cacheService.getETag(), query);
+    }
+
+    private <T> ResponseEntity<T> conditionalGet(String etag, Supplier<T> query) {
+        if (etag == null) {
+            return new ResponseEntity<>(query.get(), HttpStatus.OK);
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(query.get());
+    }
 }
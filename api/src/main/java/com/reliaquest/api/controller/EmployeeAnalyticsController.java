@@ -0,0 +1,45 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.dto.AgeHistogram;
+import com.reliaquest.api.dto.SalaryStatistics;
+import com.reliaquest.api.service.EmployeeAnalyticsService;
+import java.util.SortedMap;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Aggregates over the cached employees.
+ */
+@RestController
+@RequestMapping("/api/v1/employee/analytics")
+public class EmployeeAnalyticsController {
+
+    private final EmployeeAnalyticsService analyticsService;
+
+    public EmployeeAnalyticsController(EmployeeAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/salary")
+    public ResponseEntity<SalaryStatistics> getSalaryStatistics() {
+        return new ResponseEntity<>(analyticsService.getSalaryStatistics(), HttpStatus.OK);
+    }
+
+    @GetMapping("/salary/by-title")
+    public ResponseEntity<SortedMap<String, SalaryStatistics>> getSalaryStatisticsByTitle() {
+        return new ResponseEntity<>(analyticsService.getSalaryStatisticsByTitle(), HttpStatus.OK);
+    }
+
+    /**
+     * @param bandWidth years per band
+     */
+    @GetMapping("/age")
+    public ResponseEntity<AgeHistogram> getAgeHistogram(
+            @RequestParam(name = "band-width", defaultValue = "10") int bandWidth) {
+        return new ResponseEntity<>(analyticsService.getAgeHistogram(bandWidth), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,40 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.dto.BulkItemResult;
+import com.reliaquest.api.dto.EmployeeRequest;
+import com.reliaquest.api.service.EmployeeBulkService;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Bulk create and delete, with an outcome per item in request order.
+ */
+@RestController
+@RequestMapping("/api/v1/employee/bulk")
+public class EmployeeBulkController {
+
+    private final EmployeeBulkService bulkService;
+
+    public EmployeeBulkController(EmployeeBulkService bulkService) {
+        this.bulkService = bulkService;
+    }
+
+    @PostMapping()
+    public ResponseEntity<List<BulkItemResult>> createEmployees(@RequestBody List<EmployeeRequest> employees) {
+        return new ResponseEntity<>(bulkService.createAll(employees), HttpStatus.OK);
+    }
+
+    /**
+     * @param ids ids of the employees to delete
+     */
+    @DeleteMapping()
+    public ResponseEntity<List<BulkItemResult>> deleteEmployees(@RequestBody List<String> ids) {
+        return new ResponseEntity<>(bulkService.deleteAll(ids), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,8 @@
+package com.reliaquest.api.dto;
+
+/**
+ * @param from lowest age in the band
+ * @param to highest age in the band, inclusive
+ * @param count employees in the band
+ */
+public record AgeBand(int from, int to, long count) {}
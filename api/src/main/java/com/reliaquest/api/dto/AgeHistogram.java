@@ -0,0 +1,11 @@
+package com.reliaquest.api.dto;
+
+import java.util.List;
+
+/**
+ * Employees counted by age, in bands of {@code bandWidth} years aligned to multiples of it. The bands run from the
+ * youngest employee's to the oldest's, including empty ones in between.
+ *
+ * @param unknown employees without a valid age
+ */
+public record AgeHistogram(int bandWidth, List<AgeBand> bands, long unknown) {}
@@ -0,0 +1,44 @@
+package com.reliaquest.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * Outcome for one item of a bulk request.
+ *
+ * @param index position of the item in the request
+ * @param employee the created employee, for {@link Status#CREATED}
+ * @param id the id the item refers to, for bulk deletes
+ * @param errors why the item wasn't applied
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult(int index, Status status, Employee employee, String id, List<String> errors) {
+
+    public static BulkItemResult created(int index, Employee employee) {
+        return new BulkItemResult(index, Status.CREATED, employee, employee.getId(), null);
+    }
+
+    public static BulkItemResult deleted(int index, String id) {
+        return new BulkItemResult(index, Status.DELETED, null, id, null);
+    }
+
+    public static BulkItemResult rejected(int index, Status status, String id, List<String> errors) {
+        return new BulkItemResult(index, status, null, id, errors);
+    }
+
+    public enum Status {
+        @JsonProperty("created")
+        CREATED,
+        @JsonProperty("deleted")
+        DELETED,
+        @JsonProperty("invalid")
+        INVALID,
+        @JsonProperty("duplicate")
+        DUPLICATE,
+        @JsonProperty("not_found")
+        NOT_FOUND,
+        @JsonProperty("failed")
+        FAILED
+    }
+}
@@ -0,0 +1,3 @@
+package com.reliaquest.api.dto;
+
+public record CacheRegionStats(long size, long hits, long misses, long evictions, double hitRate) {}
@@ -0,0 +1,14 @@
+package com.reliaquest.api.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record CacheStatus(
+        int size,
+        Instant refreshedAt,
+        long ageSeconds,
+        boolean refreshing,
+        String lastError,
+        String layout,
+        long bytesPerEmployee,
+        Map<String, CacheRegionStats> regions) {}
@@ -41,7 +41,6 @@ public class Employee {
                 + salary + ", age="
                 + age + ", title='"
                 + title + '\'' + ", email='"
-                + email + '\'' + "} "
-                + super.toString();
+                + email + '\'' + "}";
     }
 }
@@ -0,0 +1,26 @@
+package com.reliaquest.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A create or delete from the mock server's change log.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeChange {
+
+    private long version;
+    private Type type;
+    private Employee employee;
+
+    public enum Type {
+        @JsonProperty("created")
+        CREATED,
+        @JsonProperty("deleted")
+        DELETED
+    }
+}
@@ -0,0 +1,16 @@
+package com.reliaquest.api.dto;
+
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changes after a given version of the mock server's employee list, oldest first.
+ */
+@Data
+@NoArgsConstructor
+public class EmployeeChanges {
+    private String epoch;
+    private long version;
+    private List<EmployeeChange> changes;
+}
@@ -0,0 +1,10 @@
+package com.reliaquest.api.dto;
+
+/**
+ * Salary statistics of a group of employees. {@code min}, {@code max} and {@code average} are exact; the percentiles
+ * are estimates within 1% of the true value. All but {@code count} are null when the group has no salaries.
+ *
+ * @param count employees in the group with a salary
+ */
+public record SalaryStatistics(
+        long count, Integer min, Integer max, Double average, Integer p50, Integer p90, Integer p99) {}
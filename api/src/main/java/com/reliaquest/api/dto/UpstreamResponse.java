@@ -0,0 +1,16 @@
+package com.reliaquest.api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The mock server's {@code Response} envelope. Binding straight into it lets Jackson read {@code data} into the
+ * target type in one pass over the response stream.
+ */
+@Data
+@NoArgsConstructor
+public class UpstreamResponse<T> {
+    private T data;
+    private String status;
+    private String error;
+}
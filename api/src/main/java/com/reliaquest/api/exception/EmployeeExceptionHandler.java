@@ -6,12 +6,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.client.RestClientResponseException;
 
 @Slf4j
 @ControllerAdvice
@@ -41,6 +43,34 @@ public class EmployeeExceptionHandler {
         return new ResponseEntity<>(apiError, HttpStatus.NOT_ACCEPTABLE);
     }
 
+    @ExceptionHandler(UpstreamRateLimitedException.class)
+    public ResponseEntity<Error> handleException(UpstreamRateLimitedException e, HttpServletRequest request) {
+        Error apiError = new Error(
+                request.getRequestURI(),
+                Collections.singletonList(e.getMessage()),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                LocalDateTime.now());
+        log.warn(e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(
+                        HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(apiError);
+    }
+
+    @ExceptionHandler(RestClientResponseException.class)
+    public ResponseEntity<Error> handleException(RestClientResponseException e, HttpServletRequest request) {
+        Error apiError = new Error(
+                request.getRequestURI(),
+                Collections.singletonList("Employee service failed: " + e.getStatusText()),
+                HttpStatus.BAD_GATEWAY.value(),
+                LocalDateTime.now());
+        log.warn("Employee service failed: {}", e.getMessage());
+
+        return new ResponseEntity<>(apiError, HttpStatus.BAD_GATEWAY);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Error> handleException(MethodArgumentNotValidException e, HttpServletRequest request) {
         List<String> errorMessages = e.getBindingResult().getFieldErrors().stream()
@@ -0,0 +1,16 @@
+package com.reliaquest.api.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+@Getter
+public class UpstreamRateLimitedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public UpstreamRateLimitedException(String operation, Duration retryAfter) {
+        super("Employee service is rate limited, unable to " + operation + ". Retry after " + retryAfter.toSeconds()
+                + "s");
+        this.retryAfter = retryAfter;
+    }
+}
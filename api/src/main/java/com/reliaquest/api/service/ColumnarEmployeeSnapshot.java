@@ -0,0 +1,427 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.Employee;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * {@link EmployeeSnapshot} that stores employees column by column rather than as objects: salary and age in
+ * {@code int[]}s, titles as codes into a dictionary of the distinct titles, and ids, names and emails as
+ * {@link PackedStrings}. The id and name indexes are primitive too: open-addressing {@code int[]} tables from value to
+ * row. A row costs roughly a hundred bytes instead of several hundred, and the only objects per snapshot are the
+ * arrays, so the heap the collector has to trace doesn't grow with the list.
+ *
+ * <p>{@link Employee} objects are created on demand for the rows a caller asks for; {@link #getEmployees()} is a view
+ * that creates them as it is read. They are copies, so changing one doesn't change the snapshot.
+ *
+ * <p>Rows are kept in upstream order. Patches copy the columns, which is O(n) like the list copy of the object
+ * layout. The id and name tables are copied too but not rebuilt: appended rows are inserted and removed rows deleted
+ * in place, and the remaining entries renumbered, so only the rows a patch touches are hashed.
+ */
+final class ColumnarEmployeeSnapshot extends EmployeeSnapshot {
+
+    private final int size;
+    private final PackedStrings ids;
+    private final PackedStrings names;
+    private final PackedStrings emails;
+    private final int[] salaries;
+    private final int[] ages;
+    /** Index into {@link #titles}, or -1 for no title. */
+    private final int[] titleCodes;
+
+    private final Titles titles;
+    /** Row + 1 of every row with an id, 0 for a free slot. */
+    private final int[] idTable;
+    /** Row + 1 of every row with a name, 0 for a free slot. Repeated names have an entry per row. */
+    private final int[] nameTable;
+
+    private final List<Employee> rows = new Rows();
+
+    private ColumnarEmployeeSnapshot(
+            PackedStrings ids,
+            PackedStrings names,
+            PackedStrings emails,
+            int[] salaries,
+            int[] ages,
+            int[] titleCodes,
+            Titles titles,
+            int[] idTable,
+            int[] nameTable) {
+        this.size = salaries.length;
+        this.ids = ids;
+        this.names = names;
+        this.emails = emails;
+        this.salaries = salaries;
+        this.ages = ages;
+        this.titleCodes = titleCodes;
+        this.titles = titles;
+        this.idTable = idTable;
+        this.nameTable = nameTable;
+    }
+
+    static ColumnarEmployeeSnapshot build(List<Employee> employees, boolean offHeap) {
+        List<Employee> list = employees == null ? List.of() : employees;
+        Titles titles = new Titles(new ArrayList<>(), new HashMap<>());
+        int[] salaries = new int[list.size()];
+        int[] ages = new int[list.size()];
+        int[] titleCodes = new int[list.size()];
+        fill(list, 0, salaries, ages, titleCodes, titles);
+        PackedStrings ids = PackedStrings.of(list.stream().map(Employee::getId).toList(), offHeap);
+        PackedStrings names =
+                PackedStrings.of(list.stream().map(Employee::getName).toList(), offHeap);
+        return new ColumnarEmployeeSnapshot(
+                ids,
+                names,
+                PackedStrings.of(list.stream().map(Employee::getEmail).toList(), offHeap),
+                salaries,
+                ages,
+                titleCodes,
+                titles,
+                index(ids, list.size()),
+                index(names, list.size()));
+    }
+
+    @Override
+    ColumnarEmployeeSnapshot appended(List<Employee> added) {
+        Set<String> addedIds = new HashSet<>();
+        for (Employee employee : added) {
+            if (employee.getId() == null || findRow(employee.getId()) >= 0 || !addedIds.add(employee.getId())) {
+                throw new IllegalStateException("Employee " + employee.getId() + " can't be added to the snapshot");
+            }
+        }
+
+        int[] patchedSalaries = Arrays.copyOf(salaries, size + added.size());
+        int[] patchedAges = Arrays.copyOf(ages, size + added.size());
+        int[] patchedTitleCodes = Arrays.copyOf(titleCodes, size + added.size());
+        Titles patchedTitles = titles.copyIfMissing(added);
+        fill(added, size, patchedSalaries, patchedAges, patchedTitleCodes, patchedTitles);
+
+        PackedStrings patchedIds =
+                ids.appended(added.stream().map(Employee::getId).toList());
+        PackedStrings patchedNames =
+                names.appended(added.stream().map(Employee::getName).toList());
+        return new ColumnarEmployeeSnapshot(
+                patchedIds,
+                patchedNames,
+                emails.appended(added.stream().map(Employee::getEmail).toList()),
+                patchedSalaries,
+                patchedAges,
+                patchedTitleCodes,
+                patchedTitles,
+                indexAppended(idTable, patchedIds, size, patchedSalaries.length),
+                indexAppended(nameTable, patchedNames, size, patchedSalaries.length));
+    }
+
+    @Override
+    ColumnarEmployeeSnapshot without(Collection<String> removedIds) {
+        BitSet removed = new BitSet(size);
+        for (String id : removedIds) {
+            int row = id == null ? -1 : findRow(id);
+            if (row < 0 || removed.get(row)) {
+                throw new IllegalStateException("Employee " + id + " can't be removed from the snapshot");
+            }
+            removed.set(row);
+        }
+
+        int kept = size - removed.cardinality();
+        int[] renumbered = new int[size];
+        int[] patchedSalaries = new int[kept];
+        int[] patchedAges = new int[kept];
+        int[] patchedTitleCodes = new int[kept];
+        for (int row = 0, next = 0; row < size; row++) {
+            if (removed.get(row)) {
+                renumbered[row] = -1;
+            } else {
+                renumbered[row] = next;
+                patchedSalaries[next] = salaries[row];
+                patchedAges[next] = ages[row];
+                patchedTitleCodes[next] = titleCodes[row];
+                next++;
+            }
+        }
+        PackedStrings patchedIds = ids.without(removed);
+        PackedStrings patchedNames = names.without(removed);
+        return new ColumnarEmployeeSnapshot(
+                patchedIds,
+                patchedNames,
+                emails.without(removed),
+                patchedSalaries,
+                patchedAges,
+                patchedTitleCodes,
+                titles,
+                indexWithout(idTable, ids, patchedIds, removed, renumbered),
+                indexWithout(nameTable, names, patchedNames, removed, renumbered));
+    }
+
+    @Override
+    public List<Employee> getEmployees() {
+        return rows;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Optional<Employee> findById(String id) {
+        int row = id == null ? -1 : findRow(id);
+        return row < 0 ? Optional.empty() : Optional.of(materialize(row));
+    }
+
+    @Override
+    public Optional<Employee> findByExactName(String name) {
+        int row = name == null ? -1 : lookup(nameTable, names, name.getBytes(StandardCharsets.UTF_8));
+        return row < 0 ? Optional.empty() : Optional.of(materialize(row));
+    }
+
+    @Override
+    public List<Employee> findByNameContaining(String fragment) {
+        String needle = NameSearchIndex.fold(fragment);
+        byte[] asciiNeedle = PackedStrings.asciiBytes(needle);
+        int[] candidates = getNameIndex().candidates(needle);
+        int count = candidates == null ? size : candidates.length;
+        List<Employee> matches = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int row = candidates == null ? i : candidates[i];
+            if (names.containsIgnoreCase(row, needle, asciiNeedle)) {
+                matches.add(materialize(row));
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    BitSet rowsOf(Collection<String> ids) {
+        BitSet rows = new BitSet(size);
+        for (String id : ids) {
+            int row = id == null ? -1 : findRow(id);
+            if (row >= 0) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    String nameAt(int row) {
+        return names.get(row);
+    }
+
+    @Override
+    String foldedNameAt(int row) {
+        return NameSearchIndex.fold(names.get(row));
+    }
+
+    @Override
+    int salaryAt(int row) {
+        return salaries[row];
+    }
+
+    @Override
+    int ageAt(int row) {
+        return ages[row];
+    }
+
+    @Override
+    String titleAt(int row) {
+        return titleCodes[row] < 0 ? null : titles.values().get(titleCodes[row]);
+    }
+
+    @Override
+    public Layout getLayout() {
+        return ids.isOffHeap() ? Layout.COLUMNAR_OFF_HEAP : Layout.COLUMNAR;
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        return ids.getEstimatedBytes()
+                + names.getEstimatedBytes()
+                + emails.getEstimatedBytes()
+                + intArrayBytes(salaries)
+                + intArrayBytes(ages)
+                + intArrayBytes(titleCodes)
+                + intArrayBytes(idTable)
+                + intArrayBytes(nameTable)
+                + titles.getEstimatedBytes()
+                + getSalaryRankingBytes()
+                + getNameIndexBytes();
+    }
+
+    private Employee materialize(int row) {
+        return new Employee(
+                ids.get(row),
+                names.get(row),
+                salaries[row] == MISSING ? null : salaries[row],
+                ages[row] == MISSING ? null : ages[row],
+                titleAt(row),
+                emails.get(row));
+    }
+
+    private int findRow(String id) {
+        return lookup(idTable, ids, id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void fill(
+            List<Employee> employees, int from, int[] salaries, int[] ages, int[] titleCodes, Titles titles) {
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            salaries[from + i] = employee.getSalary() == null ? MISSING : employee.getSalary();
+            ages[from + i] = employee.getAge() == null ? MISSING : employee.getAge();
+            titleCodes[from + i] = titles.codeOf(employee.getTitle());
+        }
+    }
+
+    /** Builds an open-addressing table at most half full, with an entry for every non-null row. */
+    private static int[] index(PackedStrings column, int size) {
+        int[] table = new int[Math.max(2, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1)];
+        for (int row = 0; row < size; row++) {
+            insert(table, column, row);
+        }
+        return table;
+    }
+
+    /**
+     * A copy of {@code table} with entries for rows {@code [from, size)} of the patched column, or a new table if the
+     * copy would be more than half full.
+     */
+    private static int[] indexAppended(int[] table, PackedStrings column, int from, int size) {
+        if (size * 2L > table.length) {
+            return index(column, size);
+        }
+        int[] patched = table.clone();
+        for (int row = from; row < size; row++) {
+            insert(patched, column, row);
+        }
+        return patched;
+    }
+
+    /**
+     * A copy of {@code table} without the entries of the removed rows and with the others renumbered. Each entry is
+     * deleted by shifting the rest of its probe run back, so only that run is hashed again. A table left less than an
+     * eighth full is rebuilt from the patched column instead.
+     *
+     * @param column the column the table was built for, before the removal
+     * @param renumbered new row of each old row, -1 for removed ones
+     */
+    private static int[] indexWithout(
+            int[] table, PackedStrings column, PackedStrings patched, BitSet removed, int[] renumbered) {
+        if (patched.size() * 8L < table.length && table.length > 16) {
+            return index(patched, patched.size());
+        }
+        int[] copy = table.clone();
+        int mask = copy.length - 1;
+        for (int row = removed.nextSetBit(0); row >= 0; row = removed.nextSetBit(row + 1)) {
+            if (column.isNull(row)) {
+                continue;
+            }
+            int free = spread(column.hashAt(row)) & mask;
+            while (copy[free] != row + 1) {
+                free = (free + 1) & mask;
+            }
+            for (int next = (free + 1) & mask; copy[next] != 0; next = (next + 1) & mask) {
+                // An entry can move back to the free slot unless its home slot is after it in the run.
+                int home = spread(column.hashAt(copy[next] - 1)) & mask;
+                if (((next - home) & mask) >= ((next - free) & mask)) {
+                    copy[free] = copy[next];
+                    free = next;
+                }
+            }
+            copy[free] = 0;
+        }
+        for (int slot = 0; slot < copy.length; slot++) {
+            if (copy[slot] != 0) {
+                copy[slot] = renumbered[copy[slot] - 1] + 1;
+            }
+        }
+        return copy;
+    }
+
+    private static void insert(int[] table, PackedStrings column, int row) {
+        if (column.isNull(row)) {
+            return;
+        }
+        int mask = table.length - 1;
+        int slot = spread(column.hashAt(row)) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = row + 1;
+    }
+
+    /** @return the lowest row holding the value, or -1 if it isn't indexed */
+    private static int lookup(int[] table, PackedStrings column, byte[] utf8) {
+        int mask = table.length - 1;
+        int found = -1;
+        for (int slot = spread(PackedStrings.hash(utf8)) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int row = table[slot] - 1;
+            if ((found < 0 || row < found) && column.equalsAt(row, utf8)) {
+                found = row;
+            }
+        }
+        return found;
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+
+    private static long intArrayBytes(int[] array) {
+        return 16 + 4L * array.length;
+    }
+
+    /** Read-only view of the rows that creates each employee as it is read. */
+    private final class Rows extends AbstractList<Employee> implements RandomAccess {
+
+        @Override
+        public Employee get(int index) {
+            return materialize(Objects.checkIndex(index, size));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * The distinct titles, shared between a snapshot and its patches. Patches only ever add titles, to a copy.
+     */
+    private record Titles(List<String> values, Map<String, Integer> codes) {
+
+        int codeOf(String title) {
+            if (title == null) {
+                return -1;
+            }
+            return codes.computeIfAbsent(title, added -> {
+                values.add(added);
+                return values.size() - 1;
+            });
+        }
+
+        /** This dictionary if it already has every title in {@code employees}, otherwise a copy to add them to. */
+        Titles copyIfMissing(List<Employee> employees) {
+            boolean missing = employees.stream()
+                    .anyMatch(employee -> employee.getTitle() != null && !codes.containsKey(employee.getTitle()));
+            return missing ? new Titles(new ArrayList<>(values), new HashMap<>(codes)) : this;
+        }
+
+        long getEstimatedBytes() {
+            return values.stream()
+                    .mapToLong(title -> 40 + 40 + 2L * title.length())
+                    .sum();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.AgeBand;
+import com.reliaquest.api.dto.AgeHistogram;
+import com.reliaquest.api.dto.SalaryStatistics;
+import com.reliaquest.api.exception.EmployeeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.springframework.stereotype.Service;
+
+/**
+ * Salary and age analytics over the cached snapshot, so dashboards don't have to page through every employee.
+ *
+ * <p>Salary statistics come from the snapshot's {@link SalarySketches}, which patches update rather than rebuild, so
+ * they don't need a scan at all once the first snapshot has been sketched. The age distribution comes from one parallel
+ * {@link RowReduction} over the snapshot, kept until the snapshot changes.
+ */
+@Service
+public class EmployeeAnalyticsService {
+
+    /** Ages outside {@code [0, MAX_AGE]} are counted as unknown. */
+    static final int MAX_AGE = 150;
+
+    private final EmployeeCacheService cacheService;
+
+    /** The age counts of the last snapshot asked about. */
+    private volatile AgeCounts ageCounts;
+
+    public EmployeeAnalyticsService(EmployeeCacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    public SalaryStatistics getSalaryStatistics() {
+        return toStatistics(cacheService.getSnapshot().getSalarySketches().getOverall());
+    }
+
+    /** Statistics per title, ordered by title. Employees without a title are only counted overall. */
+    public SortedMap<String, SalaryStatistics> getSalaryStatisticsByTitle() {
+        SortedMap<String, SalaryStatistics> statistics = new TreeMap<>();
+        cacheService
+                .getSnapshot()
+                .getSalarySketches()
+                .getByTitle()
+                .forEach((title, group) -> statistics.put(title, toStatistics(group)));
+        return statistics;
+    }
+
+    /**
+     * @throws EmployeeException if {@code bandWidth} isn't between 1 and {@value #MAX_AGE}
+     */
+    public AgeHistogram getAgeHistogram(int bandWidth) {
+        if (bandWidth < 1 || bandWidth > MAX_AGE) {
+            throw new EmployeeException("Band width must be between 1 and " + MAX_AGE);
+        }
+        AgeCounts current = ageCounts();
+        long[] ages = current.counts;
+        int youngest = 0;
+        while (youngest < ages.length && ages[youngest] == 0) {
+            youngest++;
+        }
+        int oldest = ages.length - 1;
+        while (oldest >= 0 && ages[oldest] == 0) {
+            oldest--;
+        }
+        List<AgeBand> bands = new ArrayList<>();
+        for (int from = youngest - youngest % bandWidth; from <= oldest; from += bandWidth) {
+            int last = Math.min(from + bandWidth, ages.length) - 1;
+            long count = 0;
+            for (int age = from; age <= last; age++) {
+                count += ages[age];
+            }
+            bands.add(new AgeBand(from, from + bandWidth - 1, count));
+        }
+        return new AgeHistogram(bandWidth, bands, current.unknown);
+    }
+
+    private AgeCounts ageCounts() {
+        EmployeeSnapshot snapshot = cacheService.getSnapshot();
+        AgeCounts current = ageCounts;
+        if (current == null || current.snapshot != snapshot) {
+            // Racing callers may both reduce the same snapshot; either result is correct.
+            current = RowReduction.reduce(
+                    snapshot,
+                    () -> new AgeCounts(snapshot),
+                    (result, row) -> result.add(snapshot.ageAt(row)),
+                    AgeCounts::merge);
+            ageCounts = current;
+        }
+        return current;
+    }
+
+    private static SalaryStatistics toStatistics(SalarySketches.Group group) {
+        if (group.count() == 0) {
+            return new SalaryStatistics(0, null, null, null, null, null, null);
+        }
+        return new SalaryStatistics(
+                group.count(),
+                group.min(),
+                group.max(),
+                (double) group.sum() / group.count(),
+                percentile(group, 0.5),
+                percentile(group, 0.9),
+                percentile(group, 0.99));
+    }
+
+    /** The sketch's estimate, kept within the exact range so it can't read above the maximum, say. */
+    private static Integer percentile(SalarySketches.Group group, double quantile) {
+        return Math.clamp(group.sketch().quantile(quantile), group.min(), group.max());
+    }
+
+    private static final class AgeCounts {
+
+        private final EmployeeSnapshot snapshot;
+        private final long[] counts = new long[MAX_AGE + 1];
+        private long unknown;
+
+        private AgeCounts(EmployeeSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        private void add(int age) {
+            if (age >= 0 && age <= MAX_AGE) {
+                counts[age]++;
+            } else {
+                unknown++;
+            }
+        }
+
+        private AgeCounts merge(AgeCounts other) {
+            for (int age = 0; age < counts.length; age++) {
+                counts[age] += other.counts[age];
+            }
+            unknown += other.unknown;
+            return this;
+        }
+    }
+}
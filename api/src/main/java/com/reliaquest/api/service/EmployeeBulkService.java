@@ -0,0 +1,235 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.config.CacheConfiguration;
+import com.reliaquest.api.dto.BulkItemResult;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeRequest;
+import com.reliaquest.api.dto.UpstreamResponse;
+import com.reliaquest.api.exception.EmployeeException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Creates and deletes batches of employees with the mock server's bulk endpoints, so a batch costs one upstream call
+ * per {@value #UPSTREAM_BATCH_SIZE} employees instead of one per employee.
+ *
+ * <p>The whole batch is validated and checked against the snapshot in one pass before anything is sent. Items that
+ * fail validation, repeat an earlier item or clash with an existing employee are reported individually and the rest
+ * still go ahead. The snapshot is patched once per upstream call.
+ */
+@Slf4j
+@Service
+public class EmployeeBulkService {
+
+    /** Largest batch the mock server accepts in one request. */
+    static final int UPSTREAM_BATCH_SIZE = 1000;
+
+    private static final ParameterizedTypeReference<UpstreamResponse<List<Employee>>> EMPLOYEES_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<UpstreamResponse<List<Boolean>>> DELETED_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private final UpstreamClient upstreamClient;
+    private final EmployeeCacheService cacheService;
+    private final Validator validator;
+    private final Cache employeeByIdCache;
+    private final int maxSize;
+
+    public EmployeeBulkService(
+            UpstreamClient upstreamClient,
+            EmployeeCacheService cacheService,
+            Validator validator,
+            CacheManager cacheManager,
+            @Value("${employee.bulk.max-size:1000}") int maxSize) {
+        this.upstreamClient = upstreamClient;
+        this.cacheService = cacheService;
+        this.validator = validator;
+        this.employeeByIdCache = Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.EMPLOYEE_BY_ID));
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return one result per request, in request order
+     */
+    public List<BulkItemResult> createAll(List<EmployeeRequest> requests) {
+        checkSize(requests);
+        EmployeeSnapshot snapshot = cacheService.getSnapshot();
+        BulkItemResult[] results = new BulkItemResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>(requests.size());
+        Set<String> names = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            EmployeeRequest request = requests.get(i);
+            List<String> violations = request == null
+                    ? List.of("Employee is required")
+                    : validator.validate(request).stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .toList();
+            if (!violations.isEmpty()) {
+                results[i] = BulkItemResult.rejected(i, BulkItemResult.Status.INVALID, null, violations);
+            } else if (snapshot.findByExactName(request.getName()).isPresent() || !names.add(request.getName())) {
+                results[i] = BulkItemResult.rejected(
+                        i, BulkItemResult.Status.DUPLICATE, null, List.of("Employee already exists"));
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += UPSTREAM_BATCH_SIZE) {
+            List<Integer> batch = accepted.subList(from, Math.min(from + UPSTREAM_BATCH_SIZE, accepted.size()));
+            try {
+                List<Employee> created = postEmployees(batch.stream()
+                        .map(requests::get)
+                        .map(EmployeeBulkService::toInput)
+                        .toList());
+                for (int j = 0; j < batch.size(); j++) {
+                    results[batch.get(j)] = BulkItemResult.created(batch.get(j), created.get(j));
+                }
+                cacheService.applyCreatedAll(created);
+            } catch (RestClientException | UpstreamRateLimitedException | EmployeeException e) {
+                fail(results, batch, null, e);
+            }
+        }
+
+        log.info("Bulk created {} of {} employees", countOf(results, BulkItemResult.Status.CREATED), results.length);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * The mock server deletes by name, so each id is resolved through the snapshot first.
+     *
+     * @return one result per id, in request order
+     */
+    public List<BulkItemResult> deleteAll(List<String> ids) {
+        checkSize(ids);
+        EmployeeSnapshot snapshot = cacheService.getSnapshot();
+        BulkItemResult[] results = new BulkItemResult[ids.size()];
+        Map<Integer, Employee> accepted = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            Employee employee = id == null ? null : snapshot.findById(id).orElse(null);
+            if (employee == null) {
+                results[i] =
+                        BulkItemResult.rejected(i, BulkItemResult.Status.NOT_FOUND, id, List.of("Employee not found"));
+            } else if (!seen.add(id)) {
+                results[i] = BulkItemResult.rejected(
+                        i, BulkItemResult.Status.DUPLICATE, id, List.of("Employee is already being deleted"));
+            } else {
+                accepted.put(i, employee);
+            }
+        }
+
+        List<Integer> indexes = new ArrayList<>(accepted.keySet());
+        for (int from = 0; from < indexes.size(); from += UPSTREAM_BATCH_SIZE) {
+            List<Integer> batch = indexes.subList(from, Math.min(from + UPSTREAM_BATCH_SIZE, indexes.size()));
+            try {
+                List<Boolean> deleted = deleteByNames(
+                        batch.stream().map(i -> accepted.get(i).getName()).toList());
+                List<String> deletedIds = new ArrayList<>(batch.size());
+                for (int j = 0; j < batch.size(); j++) {
+                    int index = batch.get(j);
+                    String id = ids.get(index);
+                    if (Boolean.TRUE.equals(deleted.get(j))) {
+                        results[index] = BulkItemResult.deleted(index, id);
+                        deletedIds.add(id);
+                        employeeByIdCache.evict(id);
+                    } else {
+                        results[index] = BulkItemResult.rejected(
+                                index, BulkItemResult.Status.NOT_FOUND, id, List.of("Employee not found upstream"));
+                    }
+                }
+                cacheService.applyDeletedAll(deletedIds);
+            } catch (RestClientException | UpstreamRateLimitedException | EmployeeException e) {
+                fail(results, batch, ids, e);
+            }
+        }
+
+        log.info("Bulk deleted {} of {} employees", countOf(results, BulkItemResult.Status.DELETED), results.length);
+        return Arrays.asList(results);
+    }
+
+    private List<Employee> postEmployees(List<Map<String, Object>> inputs) {
+        UpstreamResponse<List<Employee>> response =
+                upstreamClient.call("create employees", client -> client.method(HttpMethod.POST)
+                        .uri("/employee/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(Map.of("employees", inputs))
+                        .retrieve()
+                        .body(EMPLOYEES_RESPONSE));
+        if (response == null || response.getData() == null || response.getData().size() != inputs.size()) {
+            throw new EmployeeException("Unexpected response to bulk create");
+        }
+        return response.getData();
+    }
+
+    private List<Boolean> deleteByNames(List<String> names) {
+        UpstreamResponse<List<Boolean>> response =
+                upstreamClient.call("delete employees", client -> client.method(HttpMethod.DELETE)
+                        .uri("/employee/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(Map.of("names", names))
+                        .retrieve()
+                        .body(DELETED_RESPONSE));
+        if (response == null || response.getData() == null || response.getData().size() != names.size()) {
+            throw new EmployeeException("Unexpected response to bulk delete");
+        }
+        return response.getData();
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new EmployeeException("No employees in request");
+        }
+        if (items.size() > maxSize) {
+            throw new EmployeeException("At most " + maxSize + " employees per request");
+        }
+    }
+
+    /**
+     * Marks a batch failed. Whether the server applied it is unknown, so the snapshot is resynced.
+     */
+    private void fail(BulkItemResult[] results, List<Integer> batch, List<String> ids, RuntimeException e) {
+        log.warn("Bulk request for {} employees failed: {}", batch.size(), e.getMessage());
+        for (int index : batch) {
+            results[index] = BulkItemResult.rejected(
+                    index, BulkItemResult.Status.FAILED, ids == null ? null : ids.get(index), List.of(e.getMessage()));
+        }
+        cacheService.requestRefresh();
+    }
+
+    private static Map<String, Object> toInput(EmployeeRequest request) {
+        return Map.of(
+                "name", request.getName(),
+                "salary", request.getSalary(),
+                "age", request.getAge(),
+                "title", request.getTitle());
+    }
+
+    private static long countOf(BulkItemResult[] results, BulkItemResult.Status status) {
+        return Arrays.stream(results)
+                .filter(result -> result.status() == status)
+                .count();
+    }
+}
@@ -1,29 +1,612 @@
 package com.reliaquest.api.service;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.dto.CacheRegionStats;
+import com.reliaquest.api.dto.CacheStatus;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeChange;
+import com.reliaquest.api.dto.EmployeeChanges;
 import com.reliaquest.api.dto.EmployeeData;
+import com.reliaquest.api.dto.UpstreamResponse;
 import com.reliaquest.api.exception.EmployeeException;
-import org.springframework.cache.annotation.Cacheable;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
+/**
+ * Holds the employee snapshot in refresh-ahead mode: readers always get the last good snapshot without waiting, while
+ * a single background task refreshes it on a fixed delay or when {@link #requestRefresh()} is called. Only the very
+ * first read blocks, and only if the startup refresh hasn't completed yet. A scheduled refresh is skipped while the
+ * learned upstream rate limit is holding calls, so that polling never spends the budget requests are waiting for.
+ *
+ * <p>Creates and deletes made through this api are written through with {@link #applyCreated(Employee)} and
+ * {@link #applyDeleted(String)} instead of triggering a refetch. A write-through that finds its id already present or
+ * already gone means the snapshot has diverged, and triggers a full resync. Patches made while a fetch is in flight are
+ * replayed onto its result, so a refresh that started before a mutation can't undo it.
+ *
+ * <p>Once a list has been fetched, refreshes ask the mock server's change log for the creates and deletes since its
+ * version and patch them in, so a refresh costs in proportion to what changed. Only when the log no longer reaches
+ * back that far is the full list fetched again, revalidated with the server's ETag; a 304 keeps the current snapshot
+ * without downloading or parsing anything. {@link #getETag()} tags responses built from the snapshot in the same way.
+ *
+ * <p>While {@link EmployeeChangeSubscriber} has the server's event stream open, changes are pushed in through
+ * {@link #applyPushedChange(EmployeeChange)} and the scheduled refreshes are skipped.
+ *
+ * <p>{@link EmployeeSnapshotPersister} may {@link #restore(RefreshedSnapshot) restore} a snapshot saved by an earlier
+ * run before the first refresh, in which case that refresh syncs from the saved version instead of blocking readers.
+ */
+@Slf4j
 @Service
 public class EmployeeCacheService {
 
-    private final RestClient restClient;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final ParameterizedTypeReference<UpstreamResponse<EmployeeChanges>> CHANGES_RESPONSE =
+            new ParameterizedTypeReference<>() {};
 
-    public EmployeeCacheService() {
-        this.restClient = RestClient.builder()
-                .baseUrl("http://localhost:8112/api/v1/")
-                .defaultHeader("Accept", "application/json")
-                .build();
+    private final UpstreamClient upstreamClient;
+    private final ObjectReader employeeReader;
+    private final CacheManager cacheManager;
+    private final Duration refreshInterval;
+    private final Duration refreshMaxWait;
+    private final EmployeeSnapshot.Layout layout;
+    private final Clock clock = Clock.systemUTC();
+    private final String etagEpoch =
+            Long.toUnsignedString(RandomGenerator.getDefault().nextLong(), 36);
+
+    private final AtomicReference<RefreshedSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean refreshRequested = new AtomicBoolean();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    /** Completed by the next full read to be installed, or {@code null} if none has been asked for. */
+    private final AtomicReference<CompletableFuture<UpstreamVersion>> fullResync = new AtomicReference<>();
+
+    private volatile boolean pushConnected;
+    private final AtomicReference<String> lastRefreshError = new AtomicReference<>();
+    // A ReentrantLock rather than a monitor: the initial fetch blocks on I/O, which would pin a virtual thread.
+    private final ReentrantLock initialLoadLock = new ReentrantLock();
+    private final List<UnaryOperator<EmployeeSnapshot>> pendingPatches = new ArrayList<>();
+    private int fetchesInFlight;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EmployeeCacheService(
+            UpstreamClient upstreamClient,
+            ObjectMapper mapper,
+            CacheManager cacheManager,
+            @Value("${employee.cache.refresh-interval:10m}") Duration refreshInterval,
+            @Value("${employee.cache.refresh-max-wait:90s}") Duration refreshMaxWait,
+            @Value("${employee.cache.layout:objects}") EmployeeSnapshot.Layout layout) {
+        this.upstreamClient = upstreamClient;
+        this.employeeReader = mapper.readerFor(Employee.class);
+        this.cacheManager = cacheManager;
+        this.refreshInterval = refreshInterval;
+        this.refreshMaxWait = refreshMaxWait;
+        this.layout = layout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRefreshing() {
+        requestRefresh();
+        if (!refreshInterval.isZero() && !refreshInterval.isNegative()) {
+            refresher.scheduleWithFixedDelay(
+                    () -> {
+                        if (pushConnected) {
+                            return;
+                        }
+                        Duration wait = upstreamClient.getRateLimitWait();
+                        if (wait.isZero()) {
+                            requestRefresh();
+                        } else {
+                            log.debug("Skipping scheduled refresh, upstream rate limited for another {}", wait);
+                        }
+                    },
+                    refreshInterval.toMillis(),
+                    refreshInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stopRefreshing() {
+        refresher.shutdownNow();
+    }
+
+    public EmployeeSnapshot getSnapshot() {
+        RefreshedSnapshot refreshed = current.get();
+        return refreshed != null ? refreshed.snapshot() : loadInitialSnapshot();
+    }
+
+    /**
+     * Asks the background task for a refresh. Requests made while a refresh is running are coalesced into one more.
+     */
+    public void requestRefresh() {
+        refreshRequested.set(true);
+        if (refreshing.compareAndSet(false, true)) {
+            refresher.execute(this::drainRefreshRequests);
+        }
+    }
+
+    /**
+     * Asks for a refresh that ignores the change log and the ETag and reads the whole list, for when pushed changes
+     * may have been missed. Until a full read succeeds, every refresh tries one again.
+     *
+     * @return completed with the upstream version of the full list once it has been installed, or {@code null} if the
+     *     server didn't send one, and completed exceptionally if the read fails; asking again before then returns the
+     *     same future
+     */
+    public CompletableFuture<UpstreamVersion> requestFullResync() {
+        CompletableFuture<UpstreamVersion> resync =
+                fullResync.updateAndGet(pending -> pending != null ? pending : new CompletableFuture<>());
+        requestRefresh();
+        return resync;
+    }
+
+    public void applyCreated(Employee employee) {
+        patch("create " + employee.getId(), snapshot -> snapshot.withAdded(employee), adding(List.of(employee)));
+    }
+
+    public void applyDeleted(String id) {
+        patch("delete " + id, snapshot -> snapshot.withRemoved(id), removing(List.of(id)));
+    }
+
+    /** {@link #applyCreated(Employee)} for a batch, patching the snapshot once. */
+    public void applyCreatedAll(List<Employee> employees) {
+        patch(
+                "create of " + employees.size() + " employees",
+                snapshot -> snapshot.withAddedAll(employees),
+                adding(employees));
+    }
+
+    /** {@link #applyDeleted(String)} for a batch, patching the snapshot once. */
+    public void applyDeletedAll(List<String> ids) {
+        patch("delete of " + ids.size() + " employees", snapshot -> snapshot.withRemovedAll(ids), removing(ids));
+    }
+
+    /**
+     * Applies a change pushed by the mock server. Unlike this api's own patches it is applied leniently, since it may
+     * already be in the snapshot, and it advances the upstream version when it is the next one.
+     */
+    synchronized void applyPushedChange(EmployeeChange change) {
+        UnaryOperator<EmployeeSnapshot> patch = patchFor(change);
+        if (fetchesInFlight > 0) {
+            pendingPatches.add(patch);
+        }
+        RefreshedSnapshot refreshed = current.get();
+        if (refreshed == null) {
+            return;
+        }
+        UpstreamVersion upstream = refreshed.upstream();
+        if (upstream != null && upstream.version() + 1 == change.getVersion()) {
+            upstream = upstream.next();
+        }
+        current.set(new RefreshedSnapshot(applyLeniently(refreshed.snapshot(), patch), clock.instant(), upstream));
+    }
+
+    /**
+     * Records that the snapshot is known to be current, e.g. on a heartbeat from the server's event stream.
+     */
+    synchronized void confirmCurrent() {
+        RefreshedSnapshot refreshed = current.get();
+        if (refreshed != null) {
+            current.set(new RefreshedSnapshot(refreshed.snapshot(), clock.instant(), refreshed.upstream()));
+        }
+    }
+
+    void setPushConnected(boolean pushConnected) {
+        this.pushConnected = pushConnected;
+    }
+
+    /**
+     * Serves a snapshot saved by an earlier run until the first refresh replaces it. Ignored once a snapshot has been
+     * loaded.
+     *
+     * @return whether the saved snapshot was installed
+     */
+    synchronized boolean restore(RefreshedSnapshot saved) {
+        if (current.get() != null) {
+            return false;
+        }
+        install(saved);
+        return true;
+    }
+
+    /** The current snapshot with its upstream version and sync time, or {@code null} before the first load. */
+    RefreshedSnapshot getRefreshedSnapshot() {
+        return current.get();
+    }
+
+    /** Builds a snapshot in the configured {@link EmployeeSnapshot.Layout layout}. */
+    EmployeeSnapshot snapshotOf(List<Employee> employees) {
+        return layout.snapshotOf(employees);
+    }
+
+    /** Whether a snapshot has been loaded, from the mock server or from an earlier run. Never blocks. */
+    public boolean isLoaded() {
+        return current.get() != null;
+    }
+
+    /** Upstream version the snapshot was last synced with, or {@code null} before the first load. */
+    UpstreamVersion getUpstreamVersion() {
+        RefreshedSnapshot refreshed = current.get();
+        return refreshed == null ? null : refreshed.upstream();
+    }
+
+    /**
+     * ETag for responses computed from the current snapshot, or {@code null} before the first load. It changes with
+     * the snapshot version, and its epoch keeps tags from before a restart from matching.
+     */
+    public String getETag() {
+        RefreshedSnapshot refreshed = current.get();
+        return refreshed == null ? null : etagEpoch + "-" + refreshed.snapshot().getVersion();
+    }
+
+    /** Size of the current snapshot, or 0 before the first load. Unlike {@link #getSnapshot()} this never blocks. */
+    public int getSnapshotSize() {
+        RefreshedSnapshot refreshed = current.get();
+        return refreshed == null ? 0 : refreshed.snapshot().size();
+    }
+
+    /** Estimated memory held by the current snapshot, or 0 before the first load. */
+    public long getSnapshotBytes() {
+        RefreshedSnapshot refreshed = current.get();
+        return refreshed == null ? 0 : refreshed.snapshot().getEstimatedBytes();
+    }
+
+    public Duration getSnapshotAge() {
+        RefreshedSnapshot refreshed = current.get();
+        return refreshed == null ? Duration.ZERO : Duration.between(refreshed.refreshedAt(), clock.instant());
+    }
+
+    public CacheStatus getStatus() {
+        RefreshedSnapshot refreshed = current.get();
+        return new CacheStatus(
+                refreshed == null ? 0 : refreshed.snapshot().size(),
+                refreshed == null ? null : refreshed.refreshedAt(),
+                getSnapshotAge().toSeconds(),
+                refreshing.get(),
+                lastRefreshError.get(),
+                layout.name(),
+                refreshed == null ? 0 : refreshed.snapshot().getEstimatedBytesPerEmployee(),
+                getRegionStats());
     }
 
-    @Cacheable("employees")
     public EmployeeData getEmployeeData() {
-        EmployeeData payload = restClient.get().uri("/employee").retrieve().body(EmployeeData.class);
-        if (payload == null || payload.getData().isEmpty()) {
+        EmployeeData employeeData = new EmployeeData();
+        employeeData.setData(getSnapshot().getEmployees());
+        return employeeData;
+    }
+
+    private Map<String, CacheRegionStats> getRegionStats() {
+        Map<String, CacheRegionStats> regions = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache region) {
+                var nativeCache = region.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                regions.put(
+                        name,
+                        new CacheRegionStats(
+                                nativeCache.estimatedSize(),
+                                stats.hitCount(),
+                                stats.missCount(),
+                                stats.evictionCount(),
+                                stats.hitRate()));
+            }
+        }
+        return regions;
+    }
+
+    private EmployeeSnapshot loadInitialSnapshot() {
+        initialLoadLock.lock();
+        try {
+            RefreshedSnapshot refreshed = current.get();
+            return refreshed != null
+                    ? refreshed.snapshot()
+                    : fetchAndInstall(null).snapshot();
+        } finally {
+            initialLoadLock.unlock();
+        }
+    }
+
+    /**
+     * Applies one of this api's own creates or deletes. Unlike pushed and replayed changes it is applied strictly: the
+     * api just made the change upstream, so an id that is already present or already gone means the snapshot has
+     * diverged.
+     *
+     * @param replay the lenient form of the patch, replayed onto fetches in flight, which may already include it
+     */
+    private synchronized void patch(
+            String description, UnaryOperator<EmployeeSnapshot> patch, UnaryOperator<EmployeeSnapshot> replay) {
+        if (fetchesInFlight > 0) {
+            pendingPatches.add(replay);
+        }
+        RefreshedSnapshot refreshed = current.get();
+        if (refreshed == null) {
+            return;
+        }
+        try {
+            current.set(new RefreshedSnapshot(
+                    patch.apply(refreshed.snapshot()), refreshed.refreshedAt(), refreshed.upstream()));
+        } catch (IllegalStateException e) {
+            // The change log and the ETag describe the upstream list, not this snapshot, so only a full read fixes it.
+            log.warn("Employee snapshot is inconsistent after {}, resyncing: {}", description, e.getMessage());
+            requestFullResync();
+        }
+    }
+
+    private void drainRefreshRequests() {
+        try {
+            while (refreshRequested.getAndSet(false)) {
+                refresh();
+            }
+        } finally {
+            refreshing.set(false);
+        }
+        // A request may have arrived between the last check and clearing the flag.
+        if (refreshRequested.get()) {
+            requestRefresh();
+        }
+    }
+
+    private void refresh() {
+        try {
+            RefreshedSnapshot refreshed = fetchAndInstall(refreshMaxWait);
+            lastRefreshError.set(null);
+            log.debug(
+                    "Refreshed employee snapshot with {} employees",
+                    refreshed.snapshot().size());
+        } catch (RuntimeException e) {
+            lastRefreshError.set(e.getMessage());
+            log.warn(
+                    "Unable to refresh employee snapshot, serving data {}s old: {}",
+                    getSnapshotAge().toSeconds(),
+                    e.getMessage());
+        }
+    }
+
+    private RefreshedSnapshot fetchAndInstall(Duration maxWait) {
+        synchronized (this) {
+            fetchesInFlight++;
+        }
+        Instant fetchedAt = clock.instant();
+        RefreshedSnapshot previous = current.get();
+        CompletableFuture<UpstreamVersion> resync = fullResync.get();
+        UpstreamVersion since = previous == null || resync != null ? null : previous.upstream();
+        try {
+            EmployeeChanges changes = since == null ? null : fetchChanges(maxWait, since);
+            if (changes != null) {
+                synchronized (this) {
+                    // Applied on top of the current snapshot, which already has this api's own patches.
+                    EmployeeSnapshot snapshot = current.get().snapshot();
+                    if (!changes.getChanges().isEmpty()) {
+                        for (UnaryOperator<EmployeeSnapshot> patch : patchesFor(changes.getChanges())) {
+                            snapshot = applyLeniently(snapshot, patch);
+                        }
+                        for (UnaryOperator<EmployeeSnapshot> patch : pendingPatches) {
+                            snapshot = applyLeniently(snapshot, patch);
+                        }
+                    }
+                    return install(new RefreshedSnapshot(
+                            snapshot, fetchedAt, new UpstreamVersion(changes.getEpoch(), changes.getVersion())));
+                }
+            }
+
+            FetchedEmployees fetched = fetchEmployees(maxWait, since);
+            synchronized (this) {
+                if (fetched.employees() == null) {
+                    // Unchanged upstream. The current snapshot already has every patch made since it was fetched.
+                    RefreshedSnapshot latest = current.get();
+                    return install(new RefreshedSnapshot(latest.snapshot(), fetchedAt, latest.upstream()));
+                }
+                EmployeeSnapshot snapshot = snapshotOf(fetched.employees());
+                for (UnaryOperator<EmployeeSnapshot> patch : pendingPatches) {
+                    snapshot = applyLeniently(snapshot, patch);
+                }
+                RefreshedSnapshot installed = install(new RefreshedSnapshot(snapshot, fetchedAt, fetched.version()));
+                if (resync != null) {
+                    fullResync.compareAndSet(resync, null);
+                    resync.complete(installed.upstream());
+                }
+                return installed;
+            }
+        } catch (RuntimeException e) {
+            // Fail whoever is waiting for this read, but keep a full read pending for the next refresh.
+            if (resync != null && fullResync.compareAndSet(resync, new CompletableFuture<>())) {
+                resync.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            synchronized (this) {
+                if (--fetchesInFlight == 0) {
+                    pendingPatches.clear();
+                }
+            }
+        }
+    }
+
+    private RefreshedSnapshot install(RefreshedSnapshot refreshed) {
+        current.set(refreshed);
+        return refreshed;
+    }
+
+    /**
+     * Patches that no longer apply are skipped: the snapshot already reflects that create or delete.
+     */
+    private static EmployeeSnapshot applyLeniently(EmployeeSnapshot snapshot, UnaryOperator<EmployeeSnapshot> patch) {
+        try {
+            return patch.apply(snapshot);
+        } catch (IllegalStateException e) {
+            return snapshot;
+        }
+    }
+
+    /**
+     * Lenient create for pushed and replayed changes: employees already in the snapshot, typically because the server
+     * pushed the create first, are skipped.
+     */
+    private static UnaryOperator<EmployeeSnapshot> adding(List<Employee> employees) {
+        return snapshot -> {
+            List<Employee> missing = employees.stream()
+                    .filter(employee -> employee.getId() == null
+                            || snapshot.findById(employee.getId()).isEmpty())
+                    .toList();
+            return missing.isEmpty() ? snapshot : snapshot.withAddedAll(missing);
+        };
+    }
+
+    /**
+     * Lenient delete for pushed and replayed changes: ids no longer in the snapshot, typically because the server
+     * pushed the delete first, are skipped.
+     */
+    private static UnaryOperator<EmployeeSnapshot> removing(List<String> ids) {
+        return snapshot -> {
+            List<String> present = ids.stream()
+                    .filter(id -> id == null || snapshot.findById(id).isPresent())
+                    .toList();
+            return present.isEmpty() ? snapshot : snapshot.withRemovedAll(present);
+        };
+    }
+
+    /**
+     * One patch per run of consecutive creates or deletes, so catching up copies the snapshot once per run rather than
+     * once per change. Changes the snapshot already reflects are skipped, as in {@link #adding(List)} and
+     * {@link #removing(List)}.
+     */
+    private static List<UnaryOperator<EmployeeSnapshot>> patchesFor(List<EmployeeChange> changes) {
+        List<UnaryOperator<EmployeeSnapshot>> patches = new ArrayList<>();
+        int from = 0;
+        while (from < changes.size()) {
+            EmployeeChange.Type type = changes.get(from).getType();
+            int to = from + 1;
+            while (to < changes.size() && changes.get(to).getType() == type) {
+                to++;
+            }
+            List<Employee> employees = changes.subList(from, to).stream()
+                    .map(EmployeeChange::getEmployee)
+                    .toList();
+            patches.add(
+                    switch (type) {
+                        case CREATED -> adding(employees);
+                        case DELETED -> removing(
+                                employees.stream().map(Employee::getId).toList());
+                    });
+            from = to;
+        }
+        return patches;
+    }
+
+    private static UnaryOperator<EmployeeSnapshot> patchFor(EmployeeChange change) {
+        return switch (change.getType()) {
+            case CREATED -> snapshot -> snapshot.withAdded(change.getEmployee());
+            case DELETED -> snapshot ->
+                    snapshot.withRemoved(change.getEmployee().getId());
+        };
+    }
+
+    /**
+     * @return the changes after {@code since}, or {@code null} if the server can't provide them (410 Gone once the
+     *     version has been truncated from its log or it restarted) and the full list has to be fetched instead
+     */
+    private EmployeeChanges fetchChanges(Duration maxWait, UpstreamVersion since) {
+        try {
+            UpstreamResponse<EmployeeChanges> response = call("fetch employee changes", maxWait, client -> client.get()
+                    .uri("/employee/changes?since={since}&epoch={epoch}", since.version(), since.epoch())
+                    .retrieve()
+                    .body(CHANGES_RESPONSE));
+            EmployeeChanges changes = response == null ? null : response.getData();
+            return changes == null || changes.getChanges() == null ? null : changes;
+        } catch (HttpClientErrorException e) {
+            log.debug("No changes since version {}, fetching all employees: {}", since, e.getStatusCode());
+            return null;
+        }
+    }
+
+    /**
+     * Reads the upstream NDJSON stream record by record, so the payload is never buffered as a whole or parsed into
+     * an intermediate tree before the employees are built.
+     *
+     * @param since version of the list we already have, sent as {@code If-None-Match}
+     */
+    private FetchedEmployees fetchEmployees(Duration maxWait, UpstreamVersion since) {
+        Function<RestClient, FetchedEmployees> request = client -> client.get()
+                .uri("/employee/stream")
+                .accept(APPLICATION_NDJSON)
+                .headers(headers -> {
+                    if (since != null) {
+                        headers.setIfNoneMatch(since.etag());
+                    }
+                })
+                .exchange((req, response) -> {
+                    if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return new FetchedEmployees(null, since);
+                    }
+                    UpstreamClient.throwIfError(response);
+                    List<Employee> employees = new ArrayList<>();
+                    try (MappingIterator<Employee> records = employeeReader.readValues(response.getBody())) {
+                        while (records.hasNextValue()) {
+                            employees.add(records.nextValue());
+                        }
+                    }
+                    return new FetchedEmployees(
+                            employees,
+                            UpstreamVersion.fromETag(response.getHeaders().getETag()));
+                });
+        FetchedEmployees fetched = call("fetch employees", maxWait, request);
+        if (fetched.employees() != null && fetched.employees().isEmpty()) {
             throw new EmployeeException("No Employees Returned!");
         }
-        return payload;
+        return fetched;
+    }
+
+    /**
+     * @param maxWait how long to wait for the rate limit, or {@code null} for the client's default
+     */
+    private <T> T call(String operation, Duration maxWait, Function<RestClient, T> request) {
+        return maxWait == null
+                ? upstreamClient.call(operation, request)
+                : upstreamClient.call(operation, maxWait, request);
     }
+
+    /**
+     * @param upstream the mock server's version of the list the snapshot was last synced with, before any local
+     *     patches, or {@code null} if the server didn't send one
+     */
+    record RefreshedSnapshot(EmployeeSnapshot snapshot, Instant refreshedAt, UpstreamVersion upstream) {}
+
+    /**
+     * @param employees the upstream list, or {@code null} when the server answered 304 Not Modified
+     */
+    private record FetchedEmployees(List<Employee> employees, UpstreamVersion version) {}
 }
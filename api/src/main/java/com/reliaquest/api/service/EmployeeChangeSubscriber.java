@@ -0,0 +1,209 @@
+package com.reliaquest.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.dto.EmployeeChange;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Keeps the employee snapshot current from the mock server's server-sent event stream instead of polling it. The
+ * stream isn't rate limited upstream, so it bypasses {@link UpstreamClient} and holds one pooled connection open.
+ *
+ * <p>It subscribes from the snapshot's upstream version once the first load has completed. When the connection drops
+ * it reconnects with exponential backoff and resumes from the last event it applied, so nothing is missed or applied
+ * twice; while it is disconnected {@link EmployeeCacheService} falls back to its scheduled refreshes. If the server
+ * can no longer resume from that version, events arrive out of order or applying the stream fails in any other way,
+ * the snapshot is resynced from the full list, and the stream waits for that to be installed and picks up from its
+ * version. Heartbeats have to arrive more often than {@code upstream.http.read-timeout}, which is how a dead
+ * connection is noticed.
+ */
+@Slf4j
+@Service
+public class EmployeeChangeSubscriber {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final RestClient restClient;
+    private final EmployeeCacheService cacheService;
+    private final ObjectReader changeReader;
+    private final boolean enabled;
+    private final Duration reconnectDelay;
+    private final Duration maxReconnectDelay;
+
+    private volatile Thread thread;
+
+    /** Last event applied, which the next connection resumes after. */
+    private UpstreamVersion position;
+
+    /** The full resync the next connection waits for, or {@code null} if it can resume from the snapshot. */
+    private CompletableFuture<UpstreamVersion> resync;
+
+    public EmployeeChangeSubscriber(
+            RestClient upstreamRestClient,
+            EmployeeCacheService cacheService,
+            ObjectMapper mapper,
+            @Value("${employee.cache.push.enabled:true}") boolean enabled,
+            @Value("${employee.cache.push.reconnect-delay:1s}") Duration reconnectDelay,
+            @Value("${employee.cache.push.max-reconnect-delay:30s}") Duration maxReconnectDelay) {
+        this.restClient = upstreamRestClient;
+        this.cacheService = cacheService;
+        this.changeReader = mapper.readerFor(EmployeeChange.class);
+        this.enabled = enabled;
+        this.reconnectDelay = reconnectDelay;
+        this.maxReconnectDelay = maxReconnectDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            // Assigned before it starts, since run() stops as soon as it sees no thread.
+            thread = Thread.ofVirtual().name("employee-change-stream").unstarted(this::run);
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread running = thread;
+        thread = null;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    private void run() {
+        Duration delay = reconnectDelay;
+        while (thread != null) {
+            if (position == null) {
+                try {
+                    // Until the resync lands, the snapshot's version is still the one that couldn't be resumed.
+                    position = resync == null ? cacheService.getUpstreamVersion() : resync.get();
+                    resync = null;
+                } catch (ExecutionException e) {
+                    log.debug("Full resync failed, retrying: {}", e.getCause().getMessage());
+                    resync = cacheService.requestFullResync();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            if (position != null) {
+                try {
+                    if (subscribe()) {
+                        delay = reconnectDelay;
+                    }
+                } catch (RestClientException e) {
+                    log.debug("Employee change stream disconnected at {}: {}", position, e.getMessage());
+                } catch (RuntimeException e) {
+                    // The snapshot may have missed or half-applied a change, so resume from a full resync.
+                    log.warn("Employee change stream failed at {}, resyncing all employees", position, e);
+                    position = null;
+                    resync = cacheService.requestFullResync();
+                } finally {
+                    cacheService.setPushConnected(false);
+                }
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+            delay = delay.multipliedBy(2).compareTo(maxReconnectDelay) > 0 ? maxReconnectDelay : delay.multipliedBy(2);
+        }
+    }
+
+    /**
+     * Reads the stream until it ends.
+     *
+     * @return whether the subscription got as far as going live
+     */
+    private boolean subscribe() {
+        return restClient
+                .get()
+                .uri("/employee/events")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header(LAST_EVENT_ID, position.eventId())
+                .exchange((request, response) -> {
+                    UpstreamClient.throwIfError(response);
+                    try (BufferedReader reader =
+                            new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        return readEvents(reader);
+                    }
+                });
+    }
+
+    private boolean readEvents(BufferedReader reader) throws IOException {
+        boolean live = false;
+        String event = null;
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (event != null && !dispatch(event, data.toString())) {
+                    return live;
+                }
+                live |= "ready".equals(event);
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith(":")) {
+                cacheService.confirmCurrent();
+            } else if (line.startsWith("event:")) {
+                event = line.substring("event:".length()).strip();
+            } else if (line.startsWith("data:")) {
+                data.append(data.isEmpty() ? "" : "\n")
+                        .append(line.substring("data:".length()).strip());
+            }
+        }
+        return live;
+    }
+
+    /**
+     * @return {@code false} when the stream has to be abandoned for a full resync
+     */
+    private boolean dispatch(String event, String data) throws IOException {
+        switch (event) {
+            case "ready" -> {
+                log.info("Subscribed to employee changes after {}", position);
+                cacheService.setPushConnected(true);
+                return true;
+            }
+            case "created", "deleted" -> {
+                EmployeeChange change = changeReader.readValue(data);
+                if (change.getVersion() != position.version() + 1) {
+                    return resync("got change " + change.getVersion() + " after " + position.version());
+                }
+                cacheService.applyPushedChange(change);
+                position = position.next();
+                return true;
+            }
+            case "reset" -> {
+                return resync(data);
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    private boolean resync(String reason) {
+        log.info("Employee change stream can't resume ({}), resyncing all employees", reason);
+        position = null;
+        resync = cacheService.requestFullResync();
+        return false;
+    }
+}
@@ -0,0 +1,181 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.UpstreamResponse;
+import com.reliaquest.api.exception.EmployeeException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+
+/**
+ * Looks employees up on the mock server by id, coalescing concurrent lookups. Callers asking for an id that is
+ * already being looked up wait for that lookup instead of sending their own (single flight), and ids asked for within
+ * {@code employee.lookup.batch-window} of each other are fetched together with one {@code GET /employee?ids=} call,
+ * up to {@code employee.lookup.max-batch-size} ids per call. Each call spends one upstream rate-limit token however
+ * many callers it answers.
+ *
+ * <p>An id left out of a fetched batch is a miss, reported as empty. A failed batch call is not: every caller waiting
+ * on it gets the failure, and nothing is remembered, so the ids are looked up again by the next caller.
+ *
+ * <p>Batch sizes are recorded in {@code employee.lookup.batch.size}.
+ */
+@Slf4j
+@Service
+public class EmployeeLookupBatcher {
+
+    private static final ParameterizedTypeReference<UpstreamResponse<List<Employee>>> EMPLOYEES_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private final UpstreamClient upstreamClient;
+    private final Duration batchWindow;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+
+    private final Map<String, CompletableFuture<Optional<Employee>>> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private List<String> pending = new ArrayList<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-lookup-batch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Batches wait on the upstream rate limit, so each runs on its own virtual thread rather than queueing on the
+    // timer.
+    private final ExecutorService fetcher = Executors.newVirtualThreadPerTaskExecutor();
+
+    public EmployeeLookupBatcher(
+            UpstreamClient upstreamClient,
+            MeterRegistry meterRegistry,
+            @Value("${employee.lookup.batch-window:5ms}") Duration batchWindow,
+            @Value("${employee.lookup.max-batch-size:100}") int maxBatchSize) {
+        this.upstreamClient = upstreamClient;
+        this.batchWindow = batchWindow;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder("employee.lookup.batch.size")
+                .description("Ids fetched per upstream lookup call")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+        fetcher.shutdownNow();
+    }
+
+    /**
+     * Blocks until the batch holding {@code id} has been fetched.
+     *
+     * @return the employee, or empty if the batch was fetched and the mock server left the id out of it
+     * @throws RuntimeException whatever the upstream call failed with, e.g.
+     *     {@link com.reliaquest.api.exception.UpstreamRateLimitedException}; the id may well exist
+     */
+    public Optional<Employee> find(String id) {
+        CompletableFuture<Optional<Employee>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<Employee>> existing = inFlight.putIfAbsent(id, lookup);
+        if (existing != null) {
+            lookup = existing;
+        } else {
+            enqueue(id);
+        }
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void enqueue(String id) {
+        List<String> full = null;
+        pendingLock.lock();
+        try {
+            pending.add(id);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                timer.schedule(this::flush, batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+        if (full != null) {
+            List<String> batch = full;
+            fetcher.execute(() -> fetch(batch));
+        }
+    }
+
+    /**
+     * Fetches whatever is pending. A batch that filled up early has already gone, in which case this finds nothing or
+     * sends the next batch a little ahead of its window.
+     */
+    private void flush() {
+        List<String> batch;
+        pendingLock.lock();
+        try {
+            batch = takePending();
+        } finally {
+            pendingLock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            fetcher.execute(() -> fetch(batch));
+        }
+    }
+
+    private List<String> takePending() {
+        List<String> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void fetch(List<String> ids) {
+        batchSizes.record(ids.size());
+        try {
+            UpstreamResponse<List<Employee>> response =
+                    upstreamClient.call("fetch employees by id", client -> client.get()
+                            .uri("/employee?ids={ids}", String.join(",", ids))
+                            .retrieve()
+                            .body(EMPLOYEES_RESPONSE));
+            if (response == null || response.getData() == null) {
+                // Without a list there is nothing to tell a missing id from a failed call.
+                throw new EmployeeException("No Employees Returned!");
+            }
+            Map<String, Employee> found = new HashMap<>();
+            response.getData().forEach(employee -> found.put(employee.getId(), employee));
+            for (String id : ids) {
+                // Completed before it is dropped, so callers arriving in between still share the result.
+                CompletableFuture<Optional<Employee>> lookup = inFlight.get(id);
+                if (lookup != null) {
+                    lookup.complete(Optional.ofNullable(found.get(id)));
+                    inFlight.remove(id, lookup);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.debug("Lookup of {} employees failed: {}", ids.size(), e.getMessage());
+            for (String id : ids) {
+                // Dropped before it fails, so a caller retrying after the error sends a new lookup instead.
+                CompletableFuture<Optional<Employee>> lookup = inFlight.remove(id);
+                if (lookup != null) {
+                    lookup.completeExceptionally(e);
+                }
+            }
+        }
+    }
+}
@@ -18,5 +18,10 @@ public interface EmployeeService {
 
     List<String> findTopTenHighestEarningEmployeeNames();
 
+    /**
+     * The {@code limit} highest earners' names, highest first; equal salaries keep upstream order.
+     */
+    List<String> findTopHighestEarningEmployeeNames(int limit);
+
     Integer getHighestSalaryOfEmployees();
 }
@@ -1,93 +1,117 @@
 package com.reliaquest.api.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.config.CacheConfiguration;
 import com.reliaquest.api.dto.Employee;
-import com.reliaquest.api.dto.EmployeeData;
 import com.reliaquest.api.dto.EmployeeRequest;
+import com.reliaquest.api.dto.UpstreamResponse;
 import com.reliaquest.api.exception.EmployeeException;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 
 @Slf4j
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
-    private final RestClient restClient;
+    private static final ParameterizedTypeReference<UpstreamResponse<Employee>> EMPLOYEE_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private final UpstreamClient upstreamClient;
     private final ObjectMapper mapper;
     private final EmployeeCacheService cacheService;
-
-    public EmployeeServiceImpl(ObjectMapper mapper, EmployeeCacheService cacheService) {
+    private final EmployeeLookupBatcher lookupBatcher;
+    private final Cache employeeByIdCache;
+    private final Cache notFoundCache;
+
+    public EmployeeServiceImpl(
+            UpstreamClient upstreamClient,
+            ObjectMapper mapper,
+            EmployeeCacheService cacheService,
+            EmployeeLookupBatcher lookupBatcher,
+            CacheManager cacheManager) {
+        this.upstreamClient = upstreamClient;
         this.mapper = mapper;
         this.cacheService = cacheService;
-        restClient = RestClient.builder()
-                .baseUrl("http://localhost:8112/api/v1/")
-                .defaultHeader("Accept", "application/json")
-                .build();
+        this.lookupBatcher = lookupBatcher;
+        this.employeeByIdCache = Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.EMPLOYEE_BY_ID));
+        this.notFoundCache = Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.EMPLOYEE_NOT_FOUND));
     }
 
     @Override
     public List<Employee> findAll() {
-        EmployeeData employees = cacheService.getEmployeeData();
+        List<Employee> employeeList = cacheService.getSnapshot().getEmployees();
 
-        List<Employee> employeeList = employees.getData();
-
-        log.info("fetched: {}", employeeList);
+        // Only the count: formatting the list would build every row, and the columnar layout creates them on demand.
+        log.info("fetched: {} employees", employeeList.size());
 
         return employeeList;
     }
 
+    /**
+     * Answers from the snapshot when it can. Ids missing from it are looked up upstream through
+     * {@link EmployeeLookupBatcher}, which shares one call between concurrent lookups, with found employees kept in
+     * {@link CacheConfiguration#EMPLOYEE_BY_ID} and misses in {@link CacheConfiguration#EMPLOYEE_NOT_FOUND} so that
+     * unknown ids can't drain the upstream rate limit. A failed lookup isn't a miss and is never cached.
+     */
     @Override
-    @Cacheable("employees")
     public Employee findById(String id) {
-        try {
-            String json = restClient.get().uri("/employee/" + id).retrieve().body(String.class);
-            Employee employee = mapper.treeToValue(mapper.readTree(json).path("data"), Employee.class);
-            log.info("fetched: {}", employee);
+        Optional<Employee> fromSnapshot = cacheService.getSnapshot().findById(id);
+        if (fromSnapshot.isPresent()) {
+            return fromSnapshot.get();
+        }
 
-            return employee;
+        Employee cached = employeeByIdCache.get(id, Employee.class);
+        if (cached != null) {
+            return cached;
+        }
+        if (notFoundCache.get(id) != null) {
+            throw new EmployeeNotFoundException(id);
+        }
 
-        } catch (Exception e) {
+        // Upstream errors propagate uncached; only an id the mock server answered without is a miss.
+        Employee employee = lookupBatcher.find(id).orElse(null);
+        if (employee == null) {
+            notFoundCache.put(id, Boolean.TRUE);
             throw new EmployeeNotFoundException(id);
         }
+        log.info("fetched: {}", employee);
+        employeeByIdCache.put(id, employee);
+
+        return employee;
     }
 
     @Override
     public List<Employee> findByName(String name) {
-        EmployeeData employees = cacheService.getEmployeeData();
-        List<Employee> employeeList = employees.getData().stream()
-                .filter(employee -> employee.getName().toLowerCase().contains(name.toLowerCase()))
-                .toList();
+        List<Employee> employeeList = cacheService.getSnapshot().findByNameContaining(name);
 
         if (employeeList.isEmpty()) {
             throw new EmployeeNotFoundException(name);
         }
 
-        log.info("fetched: {}", employeeList);
+        log.info("fetched: {} employees", employeeList.size());
 
         return employeeList;
     }
 
     @Override
     public Integer getHighestSalaryOfEmployees() {
-        List<Employee> employees = cacheService.getEmployeeData().getData();
+        EmployeeSnapshot snapshot = cacheService.getSnapshot();
         try {
-            Integer highestSalary = employees.stream()
-                    .map(Employee::getSalary)
-                    .max(Comparator.naturalOrder())
-                    .orElse(0);
+            Integer highestSalary = snapshot.getHighestSalary().orElse(0);
 
             log.info("fetched: {}", highestSalary);
 
@@ -99,21 +123,19 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     public List<String> findTopTenHighestEarningEmployeeNames() {
-        EmployeeData employees = cacheService.getEmployeeData();
+        return findTopHighestEarningEmployeeNames(10);
+    }
 
-        List<String> topTen = employees.getData().stream()
-                .sorted(Comparator.comparing(Employee::getSalary).reversed())
-                .limit(10)
-                .map(Employee::getName)
-                .toList();
+    @Override
+    public List<String> findTopHighestEarningEmployeeNames(int limit) {
+        List<String> topEarners = cacheService.getSnapshot().getTopEarnerNames(limit);
 
-        log.info("fetched: {}", topTen);
+        log.info("fetched: {}", topEarners);
 
-        return topTen;
+        return topEarners;
     }
 
     @Override
-    @CacheEvict(value = "employees", allEntries = true)
     public Employee create(EmployeeRequest request) {
         ObjectNode json = mapper.createObjectNode();
         json.put("name", request.getName());
@@ -121,51 +143,51 @@ public class EmployeeServiceImpl implements EmployeeService {
         json.put("title", request.getTitle());
         json.put("age", request.getAge());
 
-        EmployeeData employees = cacheService.getEmployeeData();
-        Optional<Employee> employeeOpt = employees.getData().stream()
-                .filter(e -> Objects.equals(e.getName(), request.getName()))
-                .findFirst();
-
-        if (employeeOpt.isPresent()) {
+        if (cacheService.getSnapshot().findByExactName(request.getName()).isPresent()) {
             throw new EmployeeException("Employee already exists");
         }
 
+        UpstreamResponse<Employee> response;
         try {
-            String payload = restClient
-                    .method(HttpMethod.POST)
+            response = upstreamClient.call("create employee", client -> client.method(HttpMethod.POST)
                     .uri("/employee")
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(json)
                     .retrieve()
-                    .body(String.class);
-
-            return mapper.treeToValue(mapper.readTree(payload).path("data"), Employee.class);
+                    .body(EMPLOYEE_RESPONSE));
+        } catch (RestClientResponseException e) {
+            throw new EmployeeException("Unable to create employee: " + e.getStatusText());
+        }
 
-        } catch (JsonProcessingException e) {
-            throw new EmployeeException("Error processing JSON: " + e.getMessage());
+        if (response == null || response.getData() == null) {
+            throw new EmployeeException(
+                    response != null && response.getError() != null ? response.getError() : "No Employee Returned!");
         }
+        Employee employee = response.getData();
+        cacheService.applyCreated(employee);
+
+        return employee;
     }
 
     @Override
-    @CacheEvict(value = "employees", allEntries = true)
+    @CacheEvict(value = CacheConfiguration.EMPLOYEE_BY_ID, key = "#id")
     public String delete(String id) {
-        Employee employee = cacheService.getEmployeeData().getData().stream()
-                .filter(e -> Objects.equals(e.getId(), id))
-                .findFirst()
-                .orElseThrow(() -> new EmployeeNotFoundException(id));
+        Employee employee =
+                cacheService.getSnapshot().findById(id).orElseThrow(() -> new EmployeeNotFoundException(id));
 
         ObjectNode json = mapper.createObjectNode();
         json.put("name", employee.getName());
 
-        ResponseEntity<Void> response = restClient
-                .method(HttpMethod.DELETE)
-                .uri("/employee")
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(json)
-                .retrieve()
-                .toBodilessEntity();
+        ResponseEntity<Void> response =
+                upstreamClient.call("delete employee", client -> client.method(HttpMethod.DELETE)
+                        .uri("/employee")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(json)
+                        .retrieve()
+                        .toBodilessEntity());
 
         if (response.getStatusCode().is2xxSuccessful()) {
+            cacheService.applyDeleted(employee.getId());
             return "Employee " + employee.getName() + " with id: " + employee.getId() + " Deleted Successfully!";
         } else {
             return "Failed to delete Employee: " + employee.getName();
@@ -0,0 +1,273 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.Employee;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable, indexed view of the employee list fetched from the mock server. It is built once per refresh so that
+ * lookups by id, by name and by salary don't have to walk the whole list on every request, and is patched with
+ * {@link #withAdded(Employee)} / {@link #withRemoved(String)} when this api creates or deletes an employee.
+ *
+ * <p>Both layouts use the same salary ranking, salary sketches and name index, each built on first use. After that
+ * each patch derives them from its parent's by the employees it adds or removes; the ranking in particular is a
+ * persistent tree whose update costs O(log n) per employee. The rows themselves are still copied, so a patch as a
+ * whole stays O(n).
+ *
+ * <p>Every snapshot built or patched gets a new, higher {@link #getVersion() version}, so the version identifies the
+ * contents without comparing them.
+ *
+ * <p>There are two {@link Layout layouts} with the same behaviour: {@link #of(List)} keeps the employee objects, and
+ * {@link #columnar(List, boolean)} stores their fields in primitive and byte columns and only creates employee objects
+ * for the rows a caller asks for.
+ */
+public abstract sealed class EmployeeSnapshot permits ObjectEmployeeSnapshot, ColumnarEmployeeSnapshot {
+
+    /** What {@link #salaryAt(int)} and {@link #ageAt(int)} return for a missing value. */
+    static final int MISSING = Integer.MIN_VALUE;
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final long version = VERSIONS.incrementAndGet();
+    private volatile SalaryRanking salaryRanking;
+    private volatile SalarySketches salarySketches;
+    private volatile NameSearchIndex nameIndex;
+    private volatile TopEarners topEarners;
+
+    public static EmployeeSnapshot of(List<Employee> employees) {
+        return ObjectEmployeeSnapshot.build(employees);
+    }
+
+    /**
+     * @param offHeap whether names, emails and ids are packed into direct memory instead of heap byte arrays
+     */
+    public static EmployeeSnapshot columnar(List<Employee> employees, boolean offHeap) {
+        return ColumnarEmployeeSnapshot.build(employees, offHeap);
+    }
+
+    public static EmployeeSnapshot empty() {
+        return of(List.of());
+    }
+
+    /**
+     * Returns a copy with {@code employee} appended, as the mock server does on create.
+     *
+     * @throws IllegalStateException if the id is missing or already present, i.e. this snapshot is out of sync
+     */
+    public EmployeeSnapshot withAdded(Employee employee) {
+        return withAddedAll(List.of(employee));
+    }
+
+    /**
+     * Returns a copy with {@code added} appended in order, copying the indexes once for the whole batch.
+     *
+     * @throws IllegalStateException if an id is missing, already present or repeated
+     */
+    public final EmployeeSnapshot withAddedAll(List<Employee> added) {
+        EmployeeSnapshot patched = appended(added);
+        SalaryRanking ranking = salaryRanking;
+        if (ranking != null) {
+            patched.salaryRanking = ranking.plus(added);
+        }
+        SalarySketches sketches = salarySketches;
+        if (sketches != null) {
+            patched.salarySketches = sketches.plus(added);
+        }
+        NameSearchIndex index = nameIndex;
+        if (index != null) {
+            patched.nameIndex = index.appended(added.stream()
+                    .map(employee -> NameSearchIndex.fold(employee.getName()))
+                    .toList());
+        }
+        return patched;
+    }
+
+    /**
+     * Returns a copy without the employee with the given id, as the mock server does on delete.
+     *
+     * @throws IllegalStateException if the id isn't present, i.e. this snapshot is out of sync
+     */
+    public EmployeeSnapshot withRemoved(String id) {
+        return withRemovedAll(List.of(id));
+    }
+
+    /**
+     * Returns a copy without the employees with the given ids, copying the indexes once for the whole batch.
+     *
+     * @throws IllegalStateException if an id isn't present or is repeated
+     */
+    public final EmployeeSnapshot withRemovedAll(Collection<String> ids) {
+        SalaryRanking ranking = salaryRanking;
+        SalarySketches sketches = salarySketches;
+        NameSearchIndex index = nameIndex;
+        List<Employee> removed = sketches == null
+                ? List.of()
+                : ids.stream().flatMap(id -> findById(id).stream()).toList();
+        BitSet rows = ranking == null && index == null ? null : rowsOf(ids);
+        EmployeeSnapshot patched = without(ids);
+        if (ranking != null) {
+            patched.salaryRanking = ranking.minus(rows, this);
+        }
+        if (sketches != null) {
+            patched.salarySketches = sketches.minus(removed, patched);
+        }
+        if (index != null) {
+            patched.nameIndex = index.without(rows, patched);
+        }
+        return patched;
+    }
+
+    abstract EmployeeSnapshot appended(List<Employee> added);
+
+    abstract EmployeeSnapshot without(Collection<String> ids);
+
+    /** Rows of the employees with the given ids; ids that aren't present are ignored. */
+    abstract BitSet rowsOf(Collection<String> ids);
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** The employees in upstream order. */
+    public abstract List<Employee> getEmployees();
+
+    public abstract int size();
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public abstract Optional<Employee> findById(String id);
+
+    public abstract Optional<Employee> findByExactName(String name);
+
+    /**
+     * Case-insensitive substring match against the names, in upstream order. Only the rows the
+     * {@link #getNameIndex() name index} can't rule out are compared.
+     */
+    public abstract List<Employee> findByNameContaining(String fragment);
+
+    /** Read from the {@link #getSalaryRanking() salary ranking}, which keeps it up to date. */
+    public OptionalInt getHighestSalary() {
+        return getSalaryRanking().highestSalary();
+    }
+
+    /**
+     * Names of the {@code limit} highest earners, with equal salaries in upstream order. Walks the first
+     * {@code limit} entries of the {@link #getSalaryRanking() salary ranking}; the last list asked for is memoized.
+     *
+     * @throws IllegalArgumentException if {@code limit} is negative
+     */
+    public List<String> getTopEarnerNames(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        TopEarners cached = topEarners;
+        if (cached != null && cached.limit() == limit) {
+            return cached.names();
+        }
+        List<String> names = Arrays.stream(getSalaryRanking().topRows(limit))
+                .mapToObj(this::nameAt)
+                .toList();
+        topEarners = new TopEarners(limit, names);
+        return names;
+    }
+
+    /**
+     * Rows in salary order. The first salary query builds it with a sort; after that each patch updates its parent's
+     * ranking instead of sorting again.
+     */
+    SalaryRanking getSalaryRanking() {
+        SalaryRanking ranking = salaryRanking;
+        if (ranking == null) {
+            ranking = SalaryRanking.build(this);
+            salaryRanking = ranking;
+        }
+        return ranking;
+    }
+
+    /** Bytes of the salary ranking, or 0 if no salary query has built it yet. */
+    long getSalaryRankingBytes() {
+        SalaryRanking ranking = salaryRanking;
+        return ranking == null ? 0 : ranking.getEstimatedBytes();
+    }
+
+    /**
+     * Salary sketches and exact salary statistics of this snapshot. The first call builds them with a parallel scan;
+     * after that each patch updates its parent's by the employees it adds or removes instead of scanning again.
+     */
+    SalarySketches getSalarySketches() {
+        SalarySketches sketches = salarySketches;
+        if (sketches == null) {
+            sketches = SalarySketches.build(this);
+            salarySketches = sketches;
+        }
+        return sketches;
+    }
+
+    /**
+     * Trigram index of the names. The first search builds it; after that each patch updates its parent's index
+     * instead of rebuilding.
+     */
+    NameSearchIndex getNameIndex() {
+        NameSearchIndex index = nameIndex;
+        if (index == null) {
+            index = NameSearchIndex.build(this);
+            nameIndex = index;
+        }
+        return index;
+    }
+
+    /** Bytes of the name index, or 0 if no search has built it yet. */
+    long getNameIndexBytes() {
+        NameSearchIndex index = nameIndex;
+        return index == null ? 0 : index.getEstimatedBytes();
+    }
+
+    /** Name of the employee at {@code row} in upstream order, or {@code null}. */
+    abstract String nameAt(int row);
+
+    /** The {@link NameSearchIndex#fold(String) folded} name of the employee at {@code row}. */
+    abstract String foldedNameAt(int row);
+
+    /** Salary of the employee at {@code row} in upstream order, or {@link #MISSING}. */
+    abstract int salaryAt(int row);
+
+    /** Age of the employee at {@code row} in upstream order, or {@link #MISSING}. */
+    abstract int ageAt(int row);
+
+    /** Title of the employee at {@code row} in upstream order, or {@code null}. */
+    abstract String titleAt(int row);
+
+    public abstract Layout getLayout();
+
+    /**
+     * Approximate bytes retained by this snapshot, counting structure it shares with the snapshot it was patched from.
+     */
+    public abstract long getEstimatedBytes();
+
+    /** {@link #getEstimatedBytes()} divided among the employees, or 0 when there are none. */
+    public long getEstimatedBytesPerEmployee() {
+        return isEmpty() ? 0 : getEstimatedBytes() / size();
+    }
+
+    public enum Layout {
+        /** {@link #of(List)} */
+        OBJECTS,
+        /** {@link #columnar(List, boolean)} on the heap */
+        COLUMNAR,
+        /** {@link #columnar(List, boolean)} with strings off the heap */
+        COLUMNAR_OFF_HEAP;
+
+        public EmployeeSnapshot snapshotOf(List<Employee> employees) {
+            return this == OBJECTS ? of(employees) : columnar(employees, this == COLUMNAR_OFF_HEAP);
+        }
+    }
+
+    private record TopEarners(int limit, List<String> names) {}
+}
@@ -0,0 +1,31 @@
+package com.reliaquest.api.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service until an employee snapshot has been loaded, either restored by {@link EmployeeSnapshotPersister} or
+ * fetched from the mock server. Part of the readiness group, so {@code /actuator/health/readiness} only reports the
+ * api ready once requests can be answered without waiting on the first fetch.
+ */
+@Component("employeeSnapshot")
+public class EmployeeSnapshotHealthIndicator implements HealthIndicator {
+
+    private final EmployeeCacheService cacheService;
+
+    public EmployeeSnapshotHealthIndicator(EmployeeCacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @Override
+    public Health health() {
+        if (!cacheService.isLoaded()) {
+            return Health.outOfService().build();
+        }
+        return Health.up()
+                .withDetail("employees", cacheService.getSnapshotSize())
+                .withDetail("ageSeconds", cacheService.getSnapshotAge().toSeconds())
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.service.EmployeeCacheService.RefreshedSnapshot;
+import com.reliaquest.api.service.EmployeeSnapshotStore.StoredSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Warm-starts the employee snapshot from {@link EmployeeSnapshotStore}. The saved snapshot is restored while the
+ * application context starts, so it is served from the first request and the api only reports ready once it is in
+ * place; reconciling it with the mock server is left to {@link EmployeeCacheService}'s background refresh, which
+ * resumes from the saved upstream version.
+ *
+ * <p>While running, the snapshot is saved every {@code employee.cache.store.save-interval} if it has changed, and
+ * once more on shutdown. When only its upstream version or sync time moved, just those are updated.
+ */
+@Slf4j
+@Service
+public class EmployeeSnapshotPersister {
+
+    private final EmployeeCacheService cacheService;
+    private final EmployeeSnapshotStore store;
+    private final boolean enabled;
+    private final Duration saveInterval;
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-snapshot-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** What was saved last, compared by identity to tell whether anything changed since. */
+    private RefreshedSnapshot saved;
+
+    public EmployeeSnapshotPersister(
+            EmployeeCacheService cacheService,
+            EmployeeSnapshotStore store,
+            @Value("${employee.cache.store.enabled:true}") boolean enabled,
+            @Value("${employee.cache.store.save-interval:10s}") Duration saveInterval) {
+        this.cacheService = cacheService;
+        this.store = store;
+        this.enabled = enabled;
+        this.saveInterval = saveInterval;
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            store.load().ifPresent(stored -> {
+                RefreshedSnapshot restored = new RefreshedSnapshot(
+                        cacheService.snapshotOf(stored.employees()),
+                        stored.syncedAt(),
+                        stored.upstreamEpoch() == null || stored.upstreamVersion() == null
+                                ? null
+                                : new UpstreamVersion(stored.upstreamEpoch(), stored.upstreamVersion()));
+                if (cacheService.restore(restored)) {
+                    saved = restored;
+                    log.info(
+                            "Restored {} employees synced at {}",
+                            restored.snapshot().size(),
+                            restored.refreshedAt());
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Unable to restore the saved employee snapshot, starting cold: {}", e.getMessage());
+        }
+        if (!saveInterval.isZero() && !saveInterval.isNegative()) {
+            saver.scheduleWithFixedDelay(
+                    this::save, saveInterval.toMillis(), saveInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        saver.shutdownNow();
+        if (enabled) {
+            save();
+        }
+    }
+
+    private synchronized void save() {
+        RefreshedSnapshot refreshed = cacheService.getRefreshedSnapshot();
+        if (refreshed == null || refreshed == saved) {
+            return;
+        }
+        UpstreamVersion upstream = refreshed.upstream();
+        StoredSnapshot stored = new StoredSnapshot(
+                refreshed.snapshot().getEmployees(),
+                upstream == null ? null : upstream.epoch(),
+                upstream == null ? null : upstream.version(),
+                refreshed.refreshedAt());
+        try {
+            if (saved != null && saved.snapshot() == refreshed.snapshot()) {
+                store.saveVersion(stored);
+            } else {
+                store.save(stored);
+                log.debug("Saved {} employees", stored.employees().size());
+            }
+            saved = refreshed;
+        } catch (DataAccessException e) {
+            log.warn("Unable to save the employee snapshot: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.Employee;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the last employee snapshot in the api's H2 database (see {@code schema.sql}), so a restarted api can serve it
+ * before it has reached the mock server. There is only ever one saved snapshot; saving replaces it.
+ */
+@Repository
+public class EmployeeSnapshotStore {
+
+    private static final int SNAPSHOT_ID = 1;
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeSnapshotStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the saved snapshot, or empty if nothing has been saved yet
+     */
+    @Transactional(readOnly = true)
+    public Optional<StoredSnapshot> load() {
+        List<StoredSnapshot> header = jdbcTemplate.query(
+                "SELECT upstream_epoch, upstream_version, synced_at FROM employee_snapshot WHERE id = ?",
+                (rs, row) -> new StoredSnapshot(
+                        null,
+                        rs.getString("upstream_epoch"),
+                        rs.getObject("upstream_version", Long.class),
+                        rs.getTimestamp("synced_at").toInstant()),
+                SNAPSHOT_ID);
+        if (header.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Employee> employees = jdbcTemplate.query(
+                "SELECT id, employee_name, employee_salary, employee_age, employee_title, employee_email"
+                        + " FROM employee_snapshot_entry ORDER BY seq",
+                (rs, row) -> toEmployee(rs));
+        StoredSnapshot stored = header.get(0);
+        return Optional.of(
+                new StoredSnapshot(employees, stored.upstreamEpoch(), stored.upstreamVersion(), stored.syncedAt()));
+    }
+
+    /** Replaces the saved snapshot. */
+    @Transactional
+    public void save(StoredSnapshot snapshot) {
+        jdbcTemplate.update("DELETE FROM employee_snapshot_entry");
+        List<Employee> employees = snapshot.employees();
+        for (int from = 0; from < employees.size(); from += BATCH_SIZE) {
+            List<Employee> batch = employees.subList(from, Math.min(from + BATCH_SIZE, employees.size()));
+            int offset = from;
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO employee_snapshot_entry (seq, id, employee_name, employee_salary, employee_age,"
+                            + " employee_title, employee_email) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Employee employee = batch.get(i);
+                            ps.setInt(1, offset + i);
+                            ps.setString(2, employee.getId());
+                            ps.setString(3, employee.getName());
+                            ps.setObject(4, employee.getSalary(), Types.INTEGER);
+                            ps.setObject(5, employee.getAge(), Types.INTEGER);
+                            ps.setString(6, employee.getTitle());
+                            ps.setString(7, employee.getEmail());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    });
+        }
+        saveVersion(snapshot);
+    }
+
+    /** Updates the upstream version and sync time of the saved snapshot, leaving its employees as they are. */
+    @Transactional
+    public void saveVersion(StoredSnapshot snapshot) {
+        Timestamp syncedAt = Timestamp.from(snapshot.syncedAt());
+        int updated = jdbcTemplate.update(
+                "UPDATE employee_snapshot SET upstream_epoch = ?, upstream_version = ?, synced_at = ? WHERE id = ?",
+                snapshot.upstreamEpoch(),
+                snapshot.upstreamVersion(),
+                syncedAt,
+                SNAPSHOT_ID);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO employee_snapshot (id, upstream_epoch, upstream_version, synced_at)"
+                            + " VALUES (?, ?, ?, ?)",
+                    SNAPSHOT_ID,
+                    snapshot.upstreamEpoch(),
+                    snapshot.upstreamVersion(),
+                    syncedAt);
+        }
+    }
+
+    private static Employee toEmployee(ResultSet rs) throws SQLException {
+        return new Employee(
+                rs.getString("id"),
+                rs.getString("employee_name"),
+                rs.getObject("employee_salary", Integer.class),
+                rs.getObject("employee_age", Integer.class),
+                rs.getString("employee_title"),
+                rs.getString("employee_email"));
+    }
+
+    /**
+     * @param employees the snapshot's employees in list order; ignored by {@link #saveVersion(StoredSnapshot)}
+     * @param upstreamEpoch epoch of the mock server version the snapshot was synced with, or {@code null} if unknown
+     * @param upstreamVersion that version, or {@code null} if unknown
+     * @param syncedAt when the snapshot was last known to match the mock server
+     */
+    public record StoredSnapshot(
+            List<Employee> employees, String upstreamEpoch, Long upstreamVersion, Instant syncedAt) {}
+}
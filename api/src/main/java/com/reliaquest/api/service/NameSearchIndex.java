@@ -0,0 +1,292 @@
+package com.reliaquest.api.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Trigram index over the case-folded employee names of a snapshot, for substring search. A name containing the query
+ * contains each of its trigrams, so intersecting the trigrams' posting lists narrows the search to a few candidate
+ * rows, which the snapshot then checks; a query with a trigram no name has is answered without looking at any row.
+ * Queries shorter than a trigram aren't narrowed, and {@link #candidates(String)} leaves them to a scan.
+ *
+ * <p>Postings hold a stable key per employee rather than its row, because removals renumber the rows after them.
+ * Keys are handed out in upstream order, so {@link #keys} is ascending and maps a key back to its row by binary
+ * search. That lets patches share most of the index: {@link #appended(List)} copies only the postings of the new
+ * names' trigrams, and {@link #without(BitSet, EmployeeSnapshot)} only drops keys from {@link #keys}, leaving stale
+ * keys in the postings to be skipped until they outnumber the live ones and the index is rebuilt.
+ *
+ * <p>Immutable once built.
+ */
+final class NameSearchIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final int[] NO_ROWS = new int[0];
+    /** Set on every packed trigram, so that 0 marks a free slot. */
+    private static final long OCCUPIED = 1L << 48;
+
+    /** The key of each row, ascending. */
+    private final int[] keys;
+
+    private final int nextKey;
+    /** Keys in the postings that are no longer in {@link #keys}. */
+    private final int staleKeys;
+    /** Open-addressing table of packed trigrams, at most half full. */
+    private final long[] grams;
+    /** Keys of the names containing each trigram, ascending. */
+    private final int[][] postings;
+
+    private final int gramCount;
+
+    private NameSearchIndex(int[] keys, int nextKey, int staleKeys, long[] grams, int[][] postings, int gramCount) {
+        this.keys = keys;
+        this.nextKey = nextKey;
+        this.staleKeys = staleKeys;
+        this.grams = grams;
+        this.postings = postings;
+        this.gramCount = gramCount;
+    }
+
+    static NameSearchIndex build(EmployeeSnapshot snapshot) {
+        int size = snapshot.size();
+        int[] keys = new int[size];
+        Builder builder = new Builder(size);
+        for (int row = 0; row < size; row++) {
+            keys[row] = row;
+            builder.add(row, snapshot.foldedNameAt(row));
+        }
+        return builder.build(keys, size, 0);
+    }
+
+    /** How names are compared: lowercased with {@link Locale#ROOT}, with a missing name treated as empty. */
+    static String fold(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Rows that may contain {@code needle}, ascending, or {@code null} if it is too short to narrow them down and every
+     * row has to be checked.
+     *
+     * @param needle the query, already {@link #fold(String) folded}
+     */
+    int[] candidates(String needle) {
+        if (needle.length() < GRAM_LENGTH) {
+            return null;
+        }
+        int[][] lists = new int[needle.length() - GRAM_LENGTH + 1][];
+        for (int i = 0; i < lists.length; i++) {
+            int slot = find(gram(needle, i));
+            if (slot < 0) {
+                return NO_ROWS;
+            }
+            lists[i] = postings[slot];
+        }
+        // Starting from the shortest list keeps every intermediate result at most that long.
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] matched = lists[0];
+        int matchedCount = matched.length;
+        for (int i = 1; i < lists.length && matchedCount > 0; i++) {
+            int[] intersected = new int[matchedCount];
+            int count = 0;
+            int from = 0;
+            for (int j = 0; j < matchedCount; j++) {
+                int found = Arrays.binarySearch(lists[i], from, lists[i].length, matched[j]);
+                if (found >= 0) {
+                    intersected[count++] = matched[j];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            matched = intersected;
+            matchedCount = count;
+        }
+
+        int[] rows = new int[matchedCount];
+        int count = 0;
+        int from = 0;
+        for (int i = 0; i < matchedCount; i++) {
+            int row = Arrays.binarySearch(keys, from, keys.length, matched[i]);
+            if (row >= 0) {
+                rows[count++] = row;
+                from = row + 1;
+            } else {
+                // A removed employee.
+                from = -row - 1;
+            }
+        }
+        return count == rows.length ? rows : Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * @param folded the {@link #fold(String) folded} names of the employees appended to the snapshot, in order
+     */
+    NameSearchIndex appended(List<String> folded) {
+        if (nextKey > Integer.MAX_VALUE - folded.size()) {
+            throw new IllegalStateException("Name index keys exhausted");
+        }
+        int[] patchedKeys = Arrays.copyOf(keys, keys.length + folded.size());
+        Builder builder = new Builder(this);
+        for (int i = 0; i < folded.size(); i++) {
+            patchedKeys[keys.length + i] = nextKey + i;
+            builder.add(nextKey + i, folded.get(i));
+        }
+        return builder.build(patchedKeys, nextKey + folded.size(), staleKeys);
+    }
+
+    /**
+     * @param removedRows rows of this index's snapshot that {@code patched} no longer has
+     * @param patched the snapshot without them, to rebuild from once most keys in the postings are stale
+     */
+    NameSearchIndex without(BitSet removedRows, EmployeeSnapshot patched) {
+        int removed = removedRows.cardinality();
+        if (staleKeys + removed > keys.length - removed) {
+            return build(patched);
+        }
+        int[] patchedKeys = new int[keys.length - removed];
+        for (int row = 0, next = 0; row < keys.length; row++) {
+            if (!removedRows.get(row)) {
+                patchedKeys[next++] = keys[row];
+            }
+        }
+        return new NameSearchIndex(patchedKeys, nextKey, staleKeys + removed, grams, postings, gramCount);
+    }
+
+    long getEstimatedBytes() {
+        long bytes = 16 + 4L * keys.length + 16 + 8L * grams.length + 16 + 4L * postings.length;
+        for (int[] posting : postings) {
+            bytes += posting == null ? 0 : 16 + 4L * posting.length;
+        }
+        return bytes;
+    }
+
+    private int find(long gram) {
+        int mask = grams.length - 1;
+        for (int slot = slot(gram, mask); grams[slot] != 0; slot = (slot + 1) & mask) {
+            if (grams[slot] == gram) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static long gram(String folded, int from) {
+        return OCCUPIED
+                | (long) folded.charAt(from) << 32
+                | (long) folded.charAt(from + 1) << 16
+                | folded.charAt(from + 2);
+    }
+
+    private static int slot(long gram, int mask) {
+        long hash = gram * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Adds keys to a copy of an index's table. A posting list is copied the first time a key is added to it and grown
+     * in place after that; lists no key is added to stay shared with the original.
+     */
+    private static final class Builder {
+
+        private long[] grams;
+        private int[][] postings;
+        private int[] lengths;
+        /** Whether the posting list in a slot is this builder's own copy. */
+        private boolean[] owned;
+
+        private int gramCount;
+
+        Builder(int names) {
+            int capacity = Integer.highestOneBit(Math.max(8, names * 4) - 1) << 1;
+            grams = new long[capacity];
+            postings = new int[capacity][];
+            lengths = new int[capacity];
+            owned = new boolean[capacity];
+        }
+
+        Builder(NameSearchIndex from) {
+            grams = from.grams.clone();
+            postings = from.postings.clone();
+            lengths = new int[grams.length];
+            for (int slot = 0; slot < postings.length; slot++) {
+                lengths[slot] = postings[slot] == null ? 0 : postings[slot].length;
+            }
+            owned = new boolean[grams.length];
+            gramCount = from.gramCount;
+        }
+
+        /** Keys must be added in ascending order. */
+        void add(int key, String folded) {
+            for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+                int slot = slotFor(gram(folded, i));
+                int length = lengths[slot];
+                int[] posting = postings[slot];
+                if (length > 0 && posting[length - 1] == key) {
+                    // The trigram repeats within this name.
+                    continue;
+                }
+                if (!owned[slot] || length == posting.length) {
+                    posting =
+                            Arrays.copyOf(posting == null ? NO_ROWS : posting, Math.max(4, length + (length >> 1) + 1));
+                    postings[slot] = posting;
+                    owned[slot] = true;
+                }
+                posting[length] = key;
+                lengths[slot] = length + 1;
+            }
+        }
+
+        NameSearchIndex build(int[] keys, int nextKey, int staleKeys) {
+            for (int slot = 0; slot < postings.length; slot++) {
+                if (owned[slot] && postings[slot].length != lengths[slot]) {
+                    postings[slot] = Arrays.copyOf(postings[slot], lengths[slot]);
+                }
+            }
+            return new NameSearchIndex(keys, nextKey, staleKeys, grams, postings, gramCount);
+        }
+
+        private int slotFor(long gram) {
+            if ((gramCount + 1) * 2 > grams.length) {
+                grow();
+            }
+            int mask = grams.length - 1;
+            int slot = slot(gram, mask);
+            while (grams[slot] != 0) {
+                if (grams[slot] == gram) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            grams[slot] = gram;
+            gramCount++;
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldGrams = grams;
+            int[][] oldPostings = postings;
+            int[] oldLengths = lengths;
+            boolean[] oldOwned = owned;
+            grams = new long[oldGrams.length * 2];
+            postings = new int[grams.length][];
+            lengths = new int[grams.length];
+            owned = new boolean[grams.length];
+            int mask = grams.length - 1;
+            for (int old = 0; old < oldGrams.length; old++) {
+                if (oldGrams[old] != 0) {
+                    int slot = slot(oldGrams[old], mask);
+                    while (grams[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    grams[slot] = oldGrams[old];
+                    postings[slot] = oldPostings[old];
+                    lengths[slot] = oldLengths[old];
+                    owned[slot] = oldOwned[old];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.Employee;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link EmployeeSnapshot} that holds the {@link Employee} objects it was built from, indexed by id and by name so
+ * that lookups don't have to walk the whole list on every request. Salary queries use the shared
+ * {@link SalaryRanking}, which patches update in O(log n) per employee. The list, the lowercase names and the two maps
+ * are copied by every patch, so a patch as a whole costs O(n).
+ *
+ * <p>Each employee costs several hundred bytes: the object, its boxed salary, its strings (titles are repeated per
+ * employee as parsed), a lowercase copy of its name and an entry in each index.
+ */
+final class ObjectEmployeeSnapshot extends EmployeeSnapshot {
+
+    // Rough object sizes with compressed oops: headers, fields and padding.
+    private static final long EMPLOYEE_BYTES = 40;
+    private static final long INTEGER_BYTES = 16;
+    private static final long STRING_BYTES = 24 + 16;
+    private static final long HASH_ENTRY_BYTES = 32 + 8;
+
+    private final List<Employee> employees;
+    private final String[] lowerCaseNames;
+    private final Map<String, Employee> byId;
+    private final Map<String, Employee> byName;
+    private volatile long estimatedBytes = -1;
+
+    private ObjectEmployeeSnapshot(
+            List<Employee> employees,
+            String[] lowerCaseNames,
+            Map<String, Employee> byId,
+            Map<String, Employee> byName) {
+        this.employees = Collections.unmodifiableList(employees);
+        this.lowerCaseNames = lowerCaseNames;
+        this.byId = byId;
+        this.byName = byName;
+    }
+
+    static ObjectEmployeeSnapshot build(List<Employee> employees) {
+        List<Employee> copy = employees == null ? new ArrayList<>() : new ArrayList<>(employees);
+        String[] lowerCaseNames = new String[copy.size()];
+        Map<String, Employee> byId = new HashMap<>(copy.size() * 2);
+        Map<String, Employee> byName = new HashMap<>(copy.size() * 2);
+
+        for (int i = 0; i < copy.size(); i++) {
+            Employee employee = copy.get(i);
+            lowerCaseNames[i] = lowerCaseName(employee);
+            if (employee.getId() != null) {
+                byId.putIfAbsent(employee.getId(), employee);
+            }
+            if (employee.getName() != null) {
+                byName.putIfAbsent(employee.getName(), employee);
+            }
+        }
+        return new ObjectEmployeeSnapshot(copy, lowerCaseNames, byId, byName);
+    }
+
+    @Override
+    ObjectEmployeeSnapshot appended(List<Employee> added) {
+        Map<String, Employee> patchedById = new HashMap<>(byId);
+        for (Employee employee : added) {
+            if (employee.getId() == null || patchedById.putIfAbsent(employee.getId(), employee) != null) {
+                throw new IllegalStateException("Employee " + employee.getId() + " can't be added to the snapshot");
+            }
+        }
+
+        List<Employee> patched = new ArrayList<>(employees.size() + added.size());
+        patched.addAll(employees);
+        patched.addAll(added);
+        String[] patchedNames = Arrays.copyOf(lowerCaseNames, lowerCaseNames.length + added.size());
+        Map<String, Employee> patchedByName = new HashMap<>(byName);
+        for (int i = 0; i < added.size(); i++) {
+            Employee employee = added.get(i);
+            patchedNames[lowerCaseNames.length + i] = lowerCaseName(employee);
+            if (employee.getName() != null) {
+                patchedByName.putIfAbsent(employee.getName(), employee);
+            }
+        }
+
+        return new ObjectEmployeeSnapshot(patched, patchedNames, patchedById, patchedByName);
+    }
+
+    @Override
+    ObjectEmployeeSnapshot without(Collection<String> ids) {
+        Map<String, Employee> patchedById = new HashMap<>(byId);
+        Set<Employee> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String id : ids) {
+            Employee employee = id == null ? null : patchedById.remove(id);
+            if (employee == null) {
+                throw new IllegalStateException("Employee " + id + " can't be removed from the snapshot");
+            }
+            removed.add(employee);
+        }
+
+        List<Employee> patched = new ArrayList<>(employees.size() - removed.size());
+        String[] patchedNames = new String[lowerCaseNames.length - removed.size()];
+        for (int i = 0, j = 0; i < employees.size(); i++) {
+            if (!removed.contains(employees.get(i))) {
+                patched.add(employees.get(i));
+                patchedNames[j++] = lowerCaseNames[i];
+            }
+        }
+        // Names that pointed at a removed employee move to the next employee with that name, if any.
+        Map<String, Employee> patchedByName = new HashMap<>(byName);
+        Set<String> orphanedNames = new HashSet<>();
+        for (Employee employee : removed) {
+            if (employee.getName() != null && patchedByName.get(employee.getName()) == employee) {
+                patchedByName.remove(employee.getName());
+                orphanedNames.add(employee.getName());
+            }
+        }
+        if (!orphanedNames.isEmpty()) {
+            for (Employee employee : patched) {
+                if (orphanedNames.contains(employee.getName())) {
+                    patchedByName.putIfAbsent(employee.getName(), employee);
+                }
+            }
+        }
+
+        return new ObjectEmployeeSnapshot(patched, patchedNames, patchedById, patchedByName);
+    }
+
+    @Override
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    @Override
+    public int size() {
+        return employees.size();
+    }
+
+    @Override
+    public Optional<Employee> findById(String id) {
+        return Optional.ofNullable(id).map(byId::get);
+    }
+
+    @Override
+    public Optional<Employee> findByExactName(String name) {
+        return Optional.ofNullable(name).map(byName::get);
+    }
+
+    /** Matches against the lowercase names precomputed when each employee was added. */
+    @Override
+    public List<Employee> findByNameContaining(String fragment) {
+        String needle = NameSearchIndex.fold(fragment);
+        int[] candidates = getNameIndex().candidates(needle);
+        int count = candidates == null ? lowerCaseNames.length : candidates.length;
+        List<Employee> matches = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int row = candidates == null ? i : candidates[i];
+            if (lowerCaseNames[row].contains(needle)) {
+                matches.add(employees.get(row));
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    BitSet rowsOf(Collection<String> ids) {
+        Set<String> wanted = new HashSet<>(ids);
+        BitSet rows = new BitSet(employees.size());
+        for (int row = 0; row < employees.size(); row++) {
+            if (wanted.contains(employees.get(row).getId())) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    String nameAt(int row) {
+        return employees.get(row).getName();
+    }
+
+    @Override
+    String foldedNameAt(int row) {
+        return lowerCaseNames[row];
+    }
+
+    @Override
+    int salaryAt(int row) {
+        Integer salary = employees.get(row).getSalary();
+        return salary == null ? MISSING : salary;
+    }
+
+    @Override
+    int ageAt(int row) {
+        Integer age = employees.get(row).getAge();
+        return age == null ? MISSING : age;
+    }
+
+    @Override
+    String titleAt(int row) {
+        return employees.get(row).getTitle();
+    }
+
+    @Override
+    public Layout getLayout() {
+        return Layout.OBJECTS;
+    }
+
+    /** Walks every employee the first time it's asked for, then memoized apart from the lazily built indexes. */
+    @Override
+    public long getEstimatedBytes() {
+        long bytes = estimatedBytes;
+        if (bytes < 0) {
+            bytes = 0;
+            for (int i = 0; i < employees.size(); i++) {
+                Employee employee = employees.get(i);
+                bytes += EMPLOYEE_BYTES
+                        + boxedBytes(employee.getSalary())
+                        + boxedBytes(employee.getAge())
+                        + stringBytes(employee.getId())
+                        + stringBytes(employee.getName())
+                        + stringBytes(employee.getTitle())
+                        + stringBytes(employee.getEmail())
+                        + stringBytes(lowerCaseNames[i])
+                        // List and lowercase name slots, id and name index entries.
+                        + 8
+                        + 2 * HASH_ENTRY_BYTES;
+            }
+            estimatedBytes = bytes;
+        }
+        return bytes + getSalaryRankingBytes() + getNameIndexBytes();
+    }
+
+    private static long boxedBytes(Integer value) {
+        // Integer.valueOf shares the boxes for -128..127.
+        return value == null || (value >= -128 && value <= 127) ? 0 : INTEGER_BYTES;
+    }
+
+    private static long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        boolean latin1 = value.chars().allMatch(c -> c < 256);
+        return STRING_BYTES + (((latin1 ? value.length() : 2L * value.length()) + 7) & ~7L);
+    }
+
+    private static String lowerCaseName(Employee employee) {
+        return NameSearchIndex.fold(employee.getName());
+    }
+}
@@ -0,0 +1,274 @@
+package com.reliaquest.api.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable column of strings packed as UTF-8 into one block of bytes, with an offset per row, instead of a
+ * {@link String} and a backing array per row. The block is a heap array, or direct memory when built off heap so that
+ * it isn't scanned or copied by the garbage collector.
+ *
+ * <p>Rows are compared and searched on the packed bytes; a {@link String} is only decoded by {@link #get(int)}.
+ *
+ * <p>Patched copies share the block rather than each allocating their own, which would churn through direct memory
+ * faster than the collector frees it. {@link #without(BitSet)} only drops the removed rows' offsets, and
+ * {@link #appended(List)} writes into the spare room after the last append when no other copy has written there yet.
+ * Only when the block is full is a new one allocated, with the live rows compacted into it and half their size again as
+ * spare room, so a new block comes once per that many appended bytes rather than once per patch.
+ * Blocks aren't released explicitly, since older snapshots may still be reading them; the collector frees a block with
+ * the last snapshot that uses it.
+ */
+final class PackedStrings {
+
+    private static final double HEADROOM_RATIO = 0.5;
+
+    private final Block block;
+    /** Row {@code i} is {@code [starts[i], ends[i])} in the block. */
+    private final int[] starts;
+
+    private final int[] ends;
+    /** End of the bytes this column appended, where its next append goes if the block has room. */
+    private final int tail;
+    /** Bytes of the block still used by a row. */
+    private final int liveBytes;
+    /** Rows that are {@code null}, or {@code null} if there are none. */
+    private final BitSet nulls;
+
+    private PackedStrings(Block block, int[] starts, int[] ends, int tail, int liveBytes, BitSet nulls) {
+        this.block = block;
+        this.starts = starts;
+        this.ends = ends;
+        this.tail = tail;
+        this.liveBytes = liveBytes;
+        this.nulls = nulls;
+    }
+
+    static PackedStrings of(List<String> values, boolean offHeap) {
+        return empty(offHeap).appended(values);
+    }
+
+    private static PackedStrings empty(boolean offHeap) {
+        return new PackedStrings(new Block(allocate(0, offHeap)), new int[0], new int[0], 0, 0, null);
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    boolean isOffHeap() {
+        return block.bytes().isDirect();
+    }
+
+    String get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        ByteBuffer bytes = block.bytes();
+        int from = starts[row];
+        int length = ends[row] - from;
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + from, length, StandardCharsets.UTF_8);
+        }
+        byte[] copy = new byte[length];
+        bytes.get(from, copy);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+
+    boolean isNull(int row) {
+        return nulls != null && nulls.get(row);
+    }
+
+    /** Whether the row holds exactly these UTF-8 bytes. A {@code null} row matches nothing. */
+    boolean equalsAt(int row, byte[] utf8) {
+        if (isNull(row)) {
+            return false;
+        }
+        ByteBuffer bytes = block.bytes();
+        int from = starts[row];
+        if (ends[row] - from != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (bytes.get(from + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** {@link #hash(byte[])} of the row's bytes, so rows can be indexed without decoding them. */
+    int hashAt(int row) {
+        ByteBuffer bytes = block.bytes();
+        int hash = 0;
+        for (int i = starts[row], end = ends[row]; i < end; i++) {
+            hash = 31 * hash + bytes.get(i);
+        }
+        return hash;
+    }
+
+    static int hash(byte[] utf8) {
+        int hash = 0;
+        for (byte b : utf8) {
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    /**
+     * Case-insensitive substring test, equivalent to {@code get(row).toLowerCase(Locale.ROOT).contains(needle)} with
+     * a {@code null} row treated as empty. ASCII rows are matched on their bytes; anything else is decoded.
+     *
+     * @param needle the fragment, already lowercased with {@link Locale#ROOT}
+     * @param asciiNeedle its bytes if it is all ASCII, otherwise {@code null}
+     */
+    boolean containsIgnoreCase(int row, String needle, byte[] asciiNeedle) {
+        if (isNull(row)) {
+            return needle.isEmpty();
+        }
+        ByteBuffer bytes = block.bytes();
+        int from = starts[row];
+        int to = ends[row];
+        if (asciiNeedle == null || !isAscii(from, to)) {
+            return get(row).toLowerCase(Locale.ROOT).contains(needle);
+        }
+        int last = to - asciiNeedle.length;
+        for (int start = from; start <= last; start++) {
+            int i = 0;
+            while (i < asciiNeedle.length && lowerAscii(bytes.get(start + i)) == asciiNeedle[i]) {
+                i++;
+            }
+            if (i == asciiNeedle.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The needle's bytes if every character is ASCII, for {@link #containsIgnoreCase(int, String, byte[])}. */
+    static byte[] asciiBytes(String needle) {
+        for (int i = 0; i < needle.length(); i++) {
+            if (needle.charAt(i) >= 0x80) {
+                return null;
+            }
+        }
+        return needle.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** A copy with {@code added} appended, keeping the same kind of memory. */
+    PackedStrings appended(List<String> added) {
+        byte[][] encoded = new byte[added.size()][];
+        long addedBytes = 0;
+        BitSet appendedNulls = nulls == null ? null : (BitSet) nulls.clone();
+        for (int i = 0; i < encoded.length; i++) {
+            String value = added.get(i);
+            if (value == null) {
+                if (appendedNulls == null) {
+                    appendedNulls = new BitSet();
+                }
+                appendedNulls.set(size() + i);
+                encoded[i] = new byte[0];
+            } else {
+                encoded[i] = value.getBytes(StandardCharsets.UTF_8);
+            }
+            addedBytes += encoded[i].length;
+        }
+        if (liveBytes + addedBytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Packed strings can't exceed 2 GiB");
+        }
+
+        int[] appendedStarts = Arrays.copyOf(starts, starts.length + encoded.length);
+        int[] appendedEnds = Arrays.copyOf(ends, ends.length + encoded.length);
+        Block appendedBlock = block;
+        int position = tail;
+        if (!block.claim(tail, addedBytes)) {
+            // No room, or another copy already appended here: compact the live rows into a new block.
+            int live = liveBytes + (int) addedBytes;
+            int headroom = size() == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE - live, (long) (live * HEADROOM_RATIO));
+            appendedBlock = new Block(allocate(live + headroom, isOffHeap()));
+            appendedBlock.claim(0, live);
+            position = 0;
+            for (int row = 0; row < size(); row++) {
+                int length = ends[row] - starts[row];
+                appendedBlock.bytes().put(position, block.bytes(), starts[row], length);
+                appendedStarts[row] = position;
+                position += length;
+                appendedEnds[row] = position;
+            }
+        }
+        for (int i = 0; i < encoded.length; i++) {
+            appendedBlock.bytes().put(position, encoded[i]);
+            appendedStarts[size() + i] = position;
+            position += encoded[i].length;
+            appendedEnds[size() + i] = position;
+        }
+        return new PackedStrings(
+                appendedBlock, appendedStarts, appendedEnds, position, liveBytes + (int) addedBytes, appendedNulls);
+    }
+
+    /** A copy without the rows set in {@code removed}, sharing this one's block. */
+    PackedStrings without(BitSet removed) {
+        int kept = size() - removed.cardinality();
+        int[] keptStarts = new int[kept];
+        int[] keptEnds = new int[kept];
+        BitSet keptNulls = null;
+        int keptBytes = 0;
+        int index = 0;
+        for (int row = removed.nextClearBit(0); row < size(); row = removed.nextClearBit(row + 1)) {
+            keptStarts[index] = starts[row];
+            keptEnds[index] = ends[row];
+            keptBytes += ends[row] - starts[row];
+            if (nulls != null && nulls.get(row)) {
+                if (keptNulls == null) {
+                    keptNulls = new BitSet();
+                }
+                keptNulls.set(index);
+            }
+            index++;
+        }
+        return new PackedStrings(block, keptStarts, keptEnds, tail, keptBytes, keptNulls);
+    }
+
+    /** Bytes held, on or off the heap, including the offsets. */
+    long getEstimatedBytes() {
+        return block.bytes().capacity() + 16 + 8L * starts.length + (nulls == null ? 0 : nulls.size() / 8 + 40);
+    }
+
+    private boolean isAscii(int from, int to) {
+        ByteBuffer bytes = block.bytes();
+        for (int i = from; i < to; i++) {
+            if (bytes.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte lowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean offHeap) {
+        return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Bytes shared by a column and the copies patched from it. Rows are only ever written past {@code written}, so a
+     * copy appending there never touches bytes another copy can read.
+     */
+    private record Block(ByteBuffer bytes, AtomicInteger written) {
+
+        Block(ByteBuffer bytes) {
+            this(bytes, new AtomicInteger());
+        }
+
+        /** Reserves {@code length} bytes at {@code from}, if that's where the last append ended and they fit. */
+        boolean claim(int from, long length) {
+            return from + length <= bytes.capacity() && written.compareAndSet(from, from + (int) length);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.reliaquest.api.service;
+
+import java.util.Arrays;
+
+/**
+ * Quantile sketch for positive integers with a bounded relative error, after DDSketch. Each value is counted in a
+ * bucket whose width grows geometrically, so any quantile is within {@value #RELATIVE_ACCURACY} of the true value
+ * (relatively), and the whole int range needs about 1100 buckets however many values are counted.
+ *
+ * <p>Unlike most sketches it supports {@link #remove(int)}, which just decrements a bucket, and two sketches
+ * {@link #merge(QuantileSketch) merge} by adding their buckets. Reading a quantile walks the buckets, so it costs the
+ * same for ten values as for ten million.
+ *
+ * <p>Mutable and not thread-safe: a sketch is built or {@link #copy() copied} and updated by one thread, and only read
+ * once it has been published.
+ */
+final class QuantileSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    /** Bucket {@code i} counts the values in {@code (GAMMA^(i - 1), GAMMA^i]}. */
+    private long[] counts = new long[0];
+    /** Values below 1, which the buckets can't represent. */
+    private long zeroCount;
+
+    private long count;
+
+    void add(int value) {
+        if (value < 1) {
+            zeroCount++;
+        } else {
+            int index = index(value);
+            if (index >= counts.length) {
+                counts = Arrays.copyOf(counts, index + 1);
+            }
+            counts[index]++;
+        }
+        count++;
+    }
+
+    /**
+     * @throws IllegalStateException if the value was never added
+     */
+    void remove(int value) {
+        if (value < 1) {
+            if (zeroCount == 0) {
+                throw new IllegalStateException("Value " + value + " isn't in the sketch");
+            }
+            zeroCount--;
+        } else {
+            int index = index(value);
+            if (index >= counts.length || counts[index] == 0) {
+                throw new IllegalStateException("Value " + value + " isn't in the sketch");
+            }
+            counts[index]--;
+        }
+        count--;
+    }
+
+    /** Adds the other sketch's values to this one and returns it. */
+    QuantileSketch merge(QuantileSketch other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        return this;
+    }
+
+    QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch();
+        copy.counts = counts.clone();
+        copy.zeroCount = zeroCount;
+        copy.count = count;
+        return copy;
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return an estimate of the value at that quantile, or 0 if the sketch is empty
+     */
+    int quantile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) (quantile * (count - 1));
+        long seen = zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // The middle of the bucket, in the sense that it is equally far (relatively) from both ends.
+                return (int) Math.min(Integer.MAX_VALUE, Math.round(2 * Math.pow(GAMMA, i) / (GAMMA + 1)));
+            }
+        }
+        throw new IllegalStateException("Sketch counts don't add up to " + count);
+    }
+
+    private static int index(int value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+}
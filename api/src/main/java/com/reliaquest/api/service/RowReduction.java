@@ -0,0 +1,64 @@
+package com.reliaquest.api.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Reduces the rows of an {@link EmployeeSnapshot} in parallel on the common fork-join pool. The rows are split in
+ * halves until a range is at most {@value #LEAF_ROWS} rows, each leaf accumulates its range into a fresh result, and
+ * results are merged pairwise on the way back up.
+ *
+ * @param <A> the mutable result; {@code accumulator} adds one row to it and {@code merger} adds the right-hand result
+ *     to the left one and returns it
+ */
+final class RowReduction<A> extends RecursiveTask<A> {
+
+    static final int LEAF_ROWS = 8192;
+
+    private final Supplier<A> identity;
+    private final RowAccumulator<A> accumulator;
+    private final BinaryOperator<A> merger;
+    private final int from;
+    private final int to;
+
+    private RowReduction(
+            Supplier<A> identity, RowAccumulator<A> accumulator, BinaryOperator<A> merger, int from, int to) {
+        this.identity = identity;
+        this.accumulator = accumulator;
+        this.merger = merger;
+        this.from = from;
+        this.to = to;
+    }
+
+    static <A> A reduce(
+            EmployeeSnapshot snapshot, Supplier<A> identity, RowAccumulator<A> accumulator, BinaryOperator<A> merger) {
+        RowReduction<A> task = new RowReduction<>(identity, accumulator, merger, 0, snapshot.size());
+        // Small snapshots aren't worth handing to the pool.
+        return snapshot.size() <= LEAF_ROWS
+                ? task.compute()
+                : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    @Override
+    protected A compute() {
+        if (to - from <= LEAF_ROWS) {
+            A result = identity.get();
+            for (int row = from; row < to; row++) {
+                accumulator.accept(result, row);
+            }
+            return result;
+        }
+        int mid = (from + to) >>> 1;
+        RowReduction<A> left = new RowReduction<>(identity, accumulator, merger, from, mid);
+        left.fork();
+        A right = new RowReduction<>(identity, accumulator, merger, mid, to).compute();
+        return merger.apply(left.join(), right);
+    }
+
+    @FunctionalInterface
+    interface RowAccumulator<A> {
+        void accept(A result, int row);
+    }
+}
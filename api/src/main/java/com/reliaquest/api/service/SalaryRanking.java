@@ -0,0 +1,382 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.Employee;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Rows of one snapshot ordered by salary, highest first, then by the order they were added in, so that equal
+ * salaries rank the way a stable sort of the upstream list would. Rows without a salary rank last.
+ *
+ * <p>Each row gets a sequence number when it is added, and the ranking is a persistent B+tree of primitive keys
+ * holding the inverted salary in the high half and the sequence in the low half. {@link #plus(List)} and
+ * {@link #minus(BitSet, EmployeeSnapshot)} copy only the nodes on the path to each key they change, O(log n) per
+ * employee, and share the rest of the tree with the original. The sequences themselves are an ascending
+ * {@code int[]} by row that maps a key back to its row by binary search; like the snapshot's own columns, it is
+ * copied by every patch.
+ *
+ * <p>The highest salary is found when the ranking is built or patched, so reading it is constant time.
+ */
+final class SalaryRanking {
+
+    /** Most keys in a leaf; a leaf is split above this and merged with a neighbour below a quarter of it. */
+    private static final int LEAF_KEYS = 64;
+    /** Most children of a branch, with the same bounds as {@link #LEAF_KEYS}. */
+    private static final int BRANCH_CHILDREN = 32;
+
+    private final Node root;
+    /** Sequence of each row, ascending since rows are only appended or removed. */
+    private final int[] sequences;
+
+    private final int nextSequence;
+    private final OptionalInt highestSalary;
+
+    private SalaryRanking(Node root, int[] sequences, int nextSequence) {
+        this.root = root;
+        this.sequences = sequences;
+        this.nextSequence = nextSequence;
+        this.highestSalary = root == null || salaryOf(first(root)) == EmployeeSnapshot.MISSING
+                ? OptionalInt.empty()
+                : OptionalInt.of(salaryOf(first(root)));
+    }
+
+    /** Ranks every row of the snapshot with a sort of its keys, numbering the rows from 0. */
+    static SalaryRanking build(EmployeeSnapshot snapshot) {
+        int size = snapshot.size();
+        int[] sequences = new int[size];
+        long[] keys = new long[size];
+        for (int row = 0; row < size; row++) {
+            sequences[row] = row;
+            keys[row] = key(snapshot.salaryAt(row), row);
+        }
+        Arrays.parallelSort(keys);
+        return new SalaryRanking(bulkLoad(keys), sequences, size);
+    }
+
+    OptionalInt highestSalary() {
+        return highestSalary;
+    }
+
+    /** Rows of the {@code limit} highest earners in rank order. O(log n + limit) plus a binary search per row. */
+    int[] topRows(int limit) {
+        long[] keys = new long[Math.min(limit, sequences.length)];
+        if (keys.length > 0) {
+            collect(root, keys, 0);
+        }
+        int[] rows = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            rows[i] = Arrays.binarySearch(sequences, sequenceOf(keys[i]));
+        }
+        return rows;
+    }
+
+    /**
+     * The ranking with rows appended for {@code added}, in order, after every existing row.
+     *
+     * @throws IllegalStateException if the sequences run out, which only a full rebuild resets
+     */
+    SalaryRanking plus(List<Employee> added) {
+        if (nextSequence > Integer.MAX_VALUE - added.size()) {
+            throw new IllegalStateException("Salary ranking has run out of sequences");
+        }
+        int[] patchedSequences = Arrays.copyOf(sequences, sequences.length + added.size());
+        Node patchedRoot = root;
+        int sequence = nextSequence;
+        for (int i = 0; i < added.size(); i++, sequence++) {
+            Integer salary = added.get(i).getSalary();
+            patchedSequences[sequences.length + i] = sequence;
+            patchedRoot = insert(patchedRoot, key(salary == null ? EmployeeSnapshot.MISSING : salary, sequence));
+        }
+        return new SalaryRanking(patchedRoot, patchedSequences, sequence);
+    }
+
+    /**
+     * The ranking without {@code rows}.
+     *
+     * @param snapshot the snapshot this ranking belongs to, for the salaries of the removed rows
+     * @throws IllegalStateException if a row isn't ranked, i.e. this ranking is out of sync with the snapshot
+     */
+    SalaryRanking minus(BitSet rows, EmployeeSnapshot snapshot) {
+        int[] patchedSequences = new int[sequences.length - rows.cardinality()];
+        Node patchedRoot = root;
+        for (int row = 0, next = 0; row < sequences.length; row++) {
+            if (rows.get(row)) {
+                patchedRoot = remove(patchedRoot, key(snapshot.salaryAt(row), sequences[row]));
+            } else {
+                patchedSequences[next++] = sequences[row];
+            }
+        }
+        return new SalaryRanking(patchedRoot, patchedSequences, nextSequence);
+    }
+
+    /**
+     * Bytes held by this ranking. Counts the whole tree even though patches share most of it with each other.
+     */
+    long getEstimatedBytes() {
+        return 16 + 4L * sequences.length + (root == null ? 0 : root.getEstimatedBytes());
+    }
+
+    /** Sorts by salary descending, then by sequence; ~salary reverses the order and puts MISSING last. */
+    private static long key(int salary, int sequence) {
+        return ((long) ~salary << 32) | sequence;
+    }
+
+    private static int salaryOf(long key) {
+        return ~(int) (key >> 32);
+    }
+
+    private static int sequenceOf(long key) {
+        return (int) key;
+    }
+
+    private static long first(Node node) {
+        while (node instanceof Branch branch) {
+            node = branch.children[0];
+        }
+        return ((Leaf) node).keys[0];
+    }
+
+    /** Copies the smallest keys under {@code node} into {@code into} from {@code from} until it is full. */
+    private static int collect(Node node, long[] into, int from) {
+        if (node instanceof Leaf leaf) {
+            int count = Math.min(leaf.keys.length, into.length - from);
+            System.arraycopy(leaf.keys, 0, into, from, count);
+            return from + count;
+        }
+        for (Node child : ((Branch) node).children) {
+            from = collect(child, into, from);
+            if (from == into.length) {
+                break;
+            }
+        }
+        return from;
+    }
+
+    /** Packs sorted keys into leaves and those into branches, every node as evenly filled as its level allows. */
+    private static Node bulkLoad(long[] keys) {
+        if (keys.length == 0) {
+            return null;
+        }
+        int leaves = (keys.length + LEAF_KEYS - 1) / LEAF_KEYS;
+        Node[] level = new Node[leaves];
+        for (int i = 0; i < leaves; i++) {
+            level[i] = new Leaf(Arrays.copyOfRange(
+                    keys, (int) ((long) keys.length * i / leaves), (int) ((long) keys.length * (i + 1) / leaves)));
+        }
+        while (level.length > 1) {
+            int branches = (level.length + BRANCH_CHILDREN - 1) / BRANCH_CHILDREN;
+            Node[] above = new Node[branches];
+            for (int i = 0; i < branches; i++) {
+                above[i] = Branch.of(
+                        Arrays.copyOfRange(level, level.length * i / branches, level.length * (i + 1) / branches));
+            }
+            level = above;
+        }
+        return level[0];
+    }
+
+    private static Node insert(Node root, long key) {
+        if (root == null) {
+            return new Leaf(new long[] {key});
+        }
+        Node[] inserted = insertInto(root, key);
+        return inserted.length == 1 ? inserted[0] : Branch.of(inserted);
+    }
+
+    /** @return the copy of {@code node} with the key inserted, split in two if it overflowed */
+    private static Node[] insertInto(Node node, long key) {
+        if (node instanceof Leaf leaf) {
+            int at = Arrays.binarySearch(leaf.keys, key);
+            if (at >= 0) {
+                throw new IllegalStateException("Sequence " + sequenceOf(key) + " is already ranked");
+            }
+            at = -at - 1;
+            long[] keys = new long[leaf.keys.length + 1];
+            System.arraycopy(leaf.keys, 0, keys, 0, at);
+            keys[at] = key;
+            System.arraycopy(leaf.keys, at, keys, at + 1, leaf.keys.length - at);
+            return split(new Leaf(keys));
+        }
+        Branch branch = (Branch) node;
+        int child = branch.childFor(key);
+        if (child < 0) {
+            // Larger than every key, so it goes at the end of the last child.
+            child = branch.children.length - 1;
+        }
+        return split(branch.replacing(child, 1, insertInto(branch.children[child], key)));
+    }
+
+    private static Node remove(Node root, long key) {
+        Node removed = removeFrom(root, key);
+        if (removed.count() == 0) {
+            return null;
+        }
+        return removed instanceof Branch branch && branch.children.length == 1 ? branch.children[0] : removed;
+    }
+
+    /** @return the copy of {@code node} without the key, which may have fewer than the minimum keys or children */
+    private static Node removeFrom(Node node, long key) {
+        if (node instanceof Leaf leaf) {
+            int at = Arrays.binarySearch(leaf.keys, key);
+            if (at < 0) {
+                throw new IllegalStateException("Sequence " + sequenceOf(key) + " isn't ranked");
+            }
+            long[] keys = new long[leaf.keys.length - 1];
+            System.arraycopy(leaf.keys, 0, keys, 0, at);
+            System.arraycopy(leaf.keys, at + 1, keys, at, keys.length - at);
+            return new Leaf(keys);
+        }
+        Branch branch = (Branch) node;
+        int child = branch.childFor(key);
+        if (child < 0) {
+            throw new IllegalStateException("Sequence " + sequenceOf(key) + " isn't ranked");
+        }
+        Node removed = removeFrom(branch.children[child], key);
+        if (removed.count() == 0) {
+            return branch.replacing(child, 1);
+        }
+        if (removed.count() >= removed.capacity() / 4 || branch.children.length == 1) {
+            return branch.replacing(child, 1, removed);
+        }
+        // Too small: merge with a neighbour, splitting the two again if they don't fit in one node.
+        int left = child == 0 ? child : child - 1;
+        Node merged = child == left
+                ? removed.mergedWith(branch.children[child + 1])
+                : branch.children[left].mergedWith(removed);
+        return branch.replacing(left, 2, split(merged));
+    }
+
+    /** Splits a node that has more keys or children than it may hold into two halves. */
+    private static Node[] split(Node node) {
+        if (node.count() <= node.capacity()) {
+            return new Node[] {node};
+        }
+        if (node instanceof Leaf leaf) {
+            int half = leaf.keys.length / 2;
+            return new Node[] {
+                new Leaf(Arrays.copyOfRange(leaf.keys, 0, half)),
+                new Leaf(Arrays.copyOfRange(leaf.keys, half, leaf.keys.length))
+            };
+        }
+        Node[] children = ((Branch) node).children;
+        int half = children.length / 2;
+        return new Node[] {
+            Branch.of(Arrays.copyOfRange(children, 0, half)),
+            Branch.of(Arrays.copyOfRange(children, half, children.length))
+        };
+    }
+
+    private sealed interface Node permits Leaf, Branch {
+
+        /** Keys of a leaf, children of a branch. */
+        int count();
+
+        int capacity();
+
+        long last();
+
+        /** This node followed by {@code next}, which must be at the same level, as one node that may overflow. */
+        Node mergedWith(Node next);
+
+        long getEstimatedBytes();
+    }
+
+    private record Leaf(long[] keys) implements Node {
+
+        @Override
+        public int count() {
+            return keys.length;
+        }
+
+        @Override
+        public int capacity() {
+            return LEAF_KEYS;
+        }
+
+        @Override
+        public long last() {
+            return keys[keys.length - 1];
+        }
+
+        @Override
+        public Node mergedWith(Node next) {
+            long[] nextKeys = ((Leaf) next).keys;
+            long[] merged = Arrays.copyOf(keys, keys.length + nextKeys.length);
+            System.arraycopy(nextKeys, 0, merged, keys.length, nextKeys.length);
+            return new Leaf(merged);
+        }
+
+        @Override
+        public long getEstimatedBytes() {
+            return 16 + 16 + 8L * keys.length;
+        }
+    }
+
+    /**
+     * @param lasts the largest key under each child, for choosing which child to descend into
+     */
+    private record Branch(Node[] children, long[] lasts) implements Node {
+
+        static Branch of(Node[] children) {
+            long[] lasts = new long[children.length];
+            for (int i = 0; i < children.length; i++) {
+                lasts[i] = children[i].last();
+            }
+            return new Branch(children, lasts);
+        }
+
+        /** @return the first child whose keys reach {@code key}, or -1 if it is larger than all of them */
+        int childFor(long key) {
+            int at = Arrays.binarySearch(lasts, key);
+            if (at >= 0) {
+                return at;
+            }
+            at = -at - 1;
+            return at == lasts.length ? -1 : at;
+        }
+
+        /** A copy with {@code count} children from {@code from} replaced by {@code replacements}. */
+        Branch replacing(int from, int count, Node... replacements) {
+            Node[] patched = new Node[children.length - count + replacements.length];
+            System.arraycopy(children, 0, patched, 0, from);
+            System.arraycopy(replacements, 0, patched, from, replacements.length);
+            System.arraycopy(
+                    children, from + count, patched, from + replacements.length, children.length - from - count);
+            return of(patched);
+        }
+
+        @Override
+        public int count() {
+            return children.length;
+        }
+
+        @Override
+        public int capacity() {
+            return BRANCH_CHILDREN;
+        }
+
+        @Override
+        public long last() {
+            return lasts[lasts.length - 1];
+        }
+
+        @Override
+        public Node mergedWith(Node next) {
+            Node[] nextChildren = ((Branch) next).children;
+            Node[] merged = Arrays.copyOf(children, children.length + nextChildren.length);
+            System.arraycopy(nextChildren, 0, merged, children.length, nextChildren.length);
+            return of(merged);
+        }
+
+        @Override
+        public long getEstimatedBytes() {
+            long bytes = 16 + 2 * 16 + 12L * children.length;
+            for (Node child : children) {
+                bytes += child.getEstimatedBytes();
+            }
+            return bytes;
+        }
+    }
+}
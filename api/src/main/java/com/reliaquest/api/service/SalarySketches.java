@@ -0,0 +1,221 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.Employee;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Salaries of one snapshot, overall and per title: a {@link QuantileSketch} for percentiles next to the exact count,
+ * sum, minimum and maximum. Employees without a salary are left out, as are employees without a title from the
+ * per-title groups.
+ *
+ * <p>Immutable once built: {@link #plus(List)} and {@link #minus(List, EmployeeSnapshot)} copy only the groups the
+ * patch touches and share the rest with the original, so reading them never scans the snapshot. The one exception is
+ * removing a group's lowest or highest salary, after which that group's new extreme is found by scanning the patched
+ * snapshot's rows, still within the O(n) the patch costs anyway.
+ */
+final class SalarySketches {
+
+    private final Group overall;
+    private final Map<String, Group> byTitle;
+
+    private SalarySketches(Group overall, Map<String, Group> byTitle) {
+        this.overall = overall;
+        this.byTitle = byTitle;
+    }
+
+    static SalarySketches build(EmployeeSnapshot snapshot) {
+        return RowReduction.reduce(
+                snapshot,
+                () -> new SalarySketches(new Group(), new HashMap<>()),
+                (sketches, row) -> {
+                    int salary = snapshot.salaryAt(row);
+                    if (salary != EmployeeSnapshot.MISSING) {
+                        sketches.overall.add(salary);
+                        String title = snapshot.titleAt(row);
+                        if (title != null) {
+                            sketches.byTitle
+                                    .computeIfAbsent(title, t -> new Group())
+                                    .add(salary);
+                        }
+                    }
+                },
+                (left, right) -> {
+                    left.overall.merge(right.overall);
+                    right.byTitle.forEach((title, group) -> left.byTitle.merge(title, group, Group::merge));
+                    return left;
+                });
+    }
+
+    Group getOverall() {
+        return overall;
+    }
+
+    Map<String, Group> getByTitle() {
+        return byTitle;
+    }
+
+    SalarySketches plus(List<Employee> added) {
+        return patched(added, true, null);
+    }
+
+    /**
+     * @param patched the snapshot without {@code removed}, scanned only if a group loses its lowest or highest salary
+     * @throws IllegalStateException if a salary wasn't in the sketches, i.e. they are out of sync with the snapshot
+     */
+    SalarySketches minus(List<Employee> removed, EmployeeSnapshot patched) {
+        return patched(removed, false, patched);
+    }
+
+    private SalarySketches patched(List<Employee> employees, boolean add, EmployeeSnapshot snapshot) {
+        Group patchedOverall = overall.copy();
+        Map<String, Group> patchedByTitle = new HashMap<>(byTitle);
+        Map<String, Group> copied = new HashMap<>();
+        boolean overallExtremeRemoved = false;
+        Set<String> extremesRemoved = new HashSet<>();
+        for (Employee employee : employees) {
+            Integer salary = employee.getSalary();
+            if (salary == null) {
+                continue;
+            }
+            overallExtremeRemoved |= update(patchedOverall, salary, add);
+            String title = employee.getTitle();
+            if (title != null) {
+                Group group = copied.computeIfAbsent(title, t -> {
+                    Group original = byTitle.get(t);
+                    return original == null ? new Group() : original.copy();
+                });
+                if (update(group, salary, add)) {
+                    extremesRemoved.add(title);
+                }
+                if (group.count() == 0) {
+                    patchedByTitle.remove(title);
+                } else {
+                    patchedByTitle.put(title, group);
+                }
+            }
+        }
+        extremesRemoved.retainAll(patchedByTitle.keySet());
+        if (overallExtremeRemoved || !extremesRemoved.isEmpty()) {
+            rescanExtremes(snapshot, overallExtremeRemoved ? patchedOverall : null, patchedByTitle, extremesRemoved);
+        }
+        return new SalarySketches(patchedOverall, patchedByTitle);
+    }
+
+    /**
+     * @return whether a removal took away the group's lowest or highest salary while leaving others
+     */
+    private static boolean update(Group group, int salary, boolean add) {
+        if (add) {
+            group.add(salary);
+            return false;
+        }
+        group.remove(salary);
+        return group.count() > 0 && (salary == group.min || salary == group.max);
+    }
+
+    private static void rescanExtremes(
+            EmployeeSnapshot snapshot, Group overall, Map<String, Group> byTitle, Set<String> titles) {
+        if (overall != null) {
+            overall.resetExtremes();
+        }
+        titles.forEach(title -> byTitle.get(title).resetExtremes());
+        for (int row = 0; row < snapshot.size(); row++) {
+            int salary = snapshot.salaryAt(row);
+            if (salary == EmployeeSnapshot.MISSING) {
+                continue;
+            }
+            if (overall != null) {
+                overall.includeInExtremes(salary);
+            }
+            String title = snapshot.titleAt(row);
+            if (title != null && titles.contains(title)) {
+                byTitle.get(title).includeInExtremes(salary);
+            }
+        }
+    }
+
+    /**
+     * The salaries of one group. Mutable only while {@link SalarySketches} builds or patches it, like its sketch.
+     */
+    static final class Group {
+
+        private final QuantileSketch sketch;
+        private long sum;
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+
+        private Group() {
+            this(new QuantileSketch());
+        }
+
+        private Group(QuantileSketch sketch) {
+            this.sketch = sketch;
+        }
+
+        long count() {
+            return sketch.count();
+        }
+
+        long sum() {
+            return sum;
+        }
+
+        /** Only meaningful when {@link #count()} isn't 0. */
+        int min() {
+            return min;
+        }
+
+        /** Only meaningful when {@link #count()} isn't 0. */
+        int max() {
+            return max;
+        }
+
+        QuantileSketch sketch() {
+            return sketch;
+        }
+
+        private void add(int salary) {
+            sketch.add(salary);
+            sum += salary;
+            includeInExtremes(salary);
+        }
+
+        private void remove(int salary) {
+            sketch.remove(salary);
+            sum -= salary;
+            if (sketch.count() == 0) {
+                resetExtremes();
+            }
+        }
+
+        private void resetExtremes() {
+            min = Integer.MAX_VALUE;
+            max = Integer.MIN_VALUE;
+        }
+
+        private void includeInExtremes(int salary) {
+            min = Math.min(min, salary);
+            max = Math.max(max, salary);
+        }
+
+        private Group merge(Group other) {
+            sketch.merge(other.sketch);
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            return this;
+        }
+
+        private Group copy() {
+            Group copy = new Group(sketch.copy());
+            copy.sum = sum;
+            copy.min = min;
+            copy.max = max;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.reliaquest.api.service;
+
+/**
+ * A version of the mock server's employee list, which it sends as the ETag {@code "<epoch>-<version>"} and as the id
+ * of each change event.
+ */
+record UpstreamVersion(String epoch, long version) {
+
+    static UpstreamVersion fromETag(String etag) {
+        if (etag == null) {
+            return null;
+        }
+        String tag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        tag = tag.replace("\"", "");
+        int separator = tag.lastIndexOf('-');
+        try {
+            return separator > 0
+                    ? new UpstreamVersion(tag.substring(0, separator), Long.parseLong(tag.substring(separator + 1)))
+                    : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    UpstreamVersion next() {
+        return new UpstreamVersion(epoch, version + 1);
+    }
+
+    String eventId() {
+        return epoch + "-" + version;
+    }
+
+    String etag() {
+        return "\"" + eventId() + "\"";
+    }
+}
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS employee_snapshot (
+    id TINYINT PRIMARY KEY,
+    upstream_epoch VARCHAR(64),
+    upstream_version BIGINT,
+    synced_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS employee_snapshot_entry (
+    seq INT PRIMARY KEY,
+    id VARCHAR,
+    employee_name VARCHAR,
+    employee_salary INT,
+    employee_age INT,
+    employee_title VARCHAR,
+    employee_email VARCHAR
+);
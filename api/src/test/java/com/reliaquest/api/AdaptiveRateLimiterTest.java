@@ -0,0 +1,102 @@
+package com.reliaquest.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.client.AdaptiveRateLimiter;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveRateLimiterTest {
+
+    MutableClock clock;
+
+    AdaptiveRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        rateLimiter = new AdaptiveRateLimiter(clock, Duration.ofSeconds(1), Duration.ofSeconds(90));
+    }
+
+    @Test
+    public void testOnRateLimited_ShouldLearnBudgetAndHonorRetryAfter() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Duration.ZERO, rateLimiter.reserve());
+            rateLimiter.onSuccess();
+        }
+        assertEquals(Duration.ZERO, rateLimiter.reserve());
+        rateLimiter.onRateLimited(Duration.ofSeconds(30));
+
+        assertEquals(5, rateLimiter.getCapacity());
+        assertEquals(Duration.ofSeconds(30), rateLimiter.reserve());
+
+        clock.advance(Duration.ofSeconds(30));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Duration.ZERO, rateLimiter.reserve());
+            rateLimiter.onSuccess();
+        }
+        assertEquals(Duration.ofSeconds(30), rateLimiter.reserve());
+    }
+
+    @Test
+    public void testOnRateLimited_WithoutRetryAfter_ShouldBackOffExponentially() {
+        rateLimiter.reserve();
+        rateLimiter.onRateLimited(null);
+        assertEquals(Duration.ofSeconds(1), rateLimiter.getBlockedFor());
+
+        clock.advance(Duration.ofSeconds(1));
+        rateLimiter.reserve();
+        rateLimiter.onRateLimited(null);
+        assertEquals(Duration.ofSeconds(2), rateLimiter.getBlockedFor());
+    }
+
+    @Test
+    public void testGetWait_ShouldNotTakeToken() {
+        rateLimiter.reserve();
+        rateLimiter.onSuccess();
+        rateLimiter.reserve();
+        rateLimiter.onRateLimited(Duration.ofSeconds(10));
+
+        assertEquals(Duration.ofSeconds(10), rateLimiter.getWait());
+        clock.advance(Duration.ofSeconds(10));
+        assertEquals(Duration.ZERO, rateLimiter.getWait());
+        assertEquals(Duration.ZERO, rateLimiter.getWait());
+
+        assertEquals(Duration.ZERO, rateLimiter.reserve());
+        assertEquals(Duration.ofSeconds(10), rateLimiter.getWait());
+        assertEquals(Duration.ofSeconds(10), rateLimiter.reserve());
+    }
+
+    static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
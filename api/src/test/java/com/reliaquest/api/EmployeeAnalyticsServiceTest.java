@@ -0,0 +1,185 @@
+package com.reliaquest.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.dto.AgeBand;
+import com.reliaquest.api.dto.AgeHistogram;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.SalaryStatistics;
+import com.reliaquest.api.exception.EmployeeException;
+import com.reliaquest.api.service.EmployeeAnalyticsService;
+import com.reliaquest.api.service.EmployeeCacheService;
+import com.reliaquest.api.service.EmployeeSnapshot;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeAnalyticsServiceTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    List<Employee> employees;
+
+    EmployeeCacheService cacheService = mock(EmployeeCacheService.class);
+
+    EmployeeAnalyticsService analyticsService = new EmployeeAnalyticsService(cacheService);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        File file = new File("src/test/resources/test.json");
+        employees = objectMapper.readValue(file, new TypeReference<>() {});
+    }
+
+    @Test
+    public void testGetSalaryStatistics_ShouldMatchExactValuesInBothLayouts() {
+        List<Integer> salaries =
+                employees.stream().map(Employee::getSalary).sorted().toList();
+
+        for (EmployeeSnapshot.Layout layout : EmployeeSnapshot.Layout.values()) {
+            when(cacheService.getSnapshot()).thenReturn(layout.snapshotOf(employees));
+
+            SalaryStatistics statistics = analyticsService.getSalaryStatistics();
+
+            assertEquals(salaries.size(), statistics.count(), layout.name());
+            assertEquals(salaries.get(0), statistics.min(), layout.name());
+            assertEquals(salaries.get(salaries.size() - 1), statistics.max(), layout.name());
+            assertEquals(
+                    salaries.stream().mapToInt(Integer::intValue).average().orElseThrow(),
+                    statistics.average(),
+                    1e-9,
+                    layout.name());
+            assertWithinOnePercent(salaries, 0.5, statistics.p50());
+            assertWithinOnePercent(salaries, 0.9, statistics.p90());
+            assertWithinOnePercent(salaries, 0.99, statistics.p99());
+        }
+    }
+
+    @Test
+    public void testGetSalaryStatisticsByTitle_ShouldCoverEveryTitle() {
+        when(cacheService.getSnapshot()).thenReturn(EmployeeSnapshot.of(employees));
+
+        SortedMap<String, SalaryStatistics> byTitle = analyticsService.getSalaryStatisticsByTitle();
+
+        assertEquals(employees.stream().map(Employee::getTitle).distinct().count(), byTitle.size());
+        assertEquals(
+                employees.size(),
+                byTitle.values().stream().mapToLong(SalaryStatistics::count).sum());
+        byTitle.forEach((title, statistics) -> {
+            List<Integer> salaries = employees.stream()
+                    .filter(e -> e.getTitle().equals(title))
+                    .map(Employee::getSalary)
+                    .sorted()
+                    .toList();
+            assertEquals(salaries.get(salaries.size() - 1), statistics.max(), title);
+            assertWithinOnePercent(salaries, 0.5, statistics.p50());
+        });
+    }
+
+    @Test
+    public void testPatchedSketches_ShouldMatchSketchesOfRebuiltSnapshot() {
+        // Large enough for the reduction to fork.
+        SplittableRandom random = new SplittableRandom(11);
+        List<Employee> expected = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            expected.add(randomEmployee(random, i));
+        }
+        EmployeeSnapshot patched = EmployeeSnapshot.columnar(expected, false);
+        when(cacheService.getSnapshot()).thenReturn(patched);
+        analyticsService.getSalaryStatistics();
+
+        for (int i = 0; i < 2_000; i++) {
+            if (random.nextBoolean()) {
+                Employee created = randomEmployee(random, 40_000 + i);
+                expected.add(created);
+                patched = patched.withAdded(created);
+            } else {
+                Employee removed = expected.remove(random.nextInt(expected.size()));
+                patched = patched.withRemoved(removed.getId());
+            }
+        }
+        when(cacheService.getSnapshot()).thenReturn(patched);
+        SalaryStatistics incremental = analyticsService.getSalaryStatistics();
+        SortedMap<String, SalaryStatistics> incrementalByTitle = analyticsService.getSalaryStatisticsByTitle();
+
+        when(cacheService.getSnapshot()).thenReturn(EmployeeSnapshot.of(expected));
+
+        assertEquals(analyticsService.getSalaryStatistics(), incremental);
+        assertEquals(analyticsService.getSalaryStatisticsByTitle(), incrementalByTitle);
+    }
+
+    @Test
+    public void testPatchedStatistics_WhenExtremesRemoved_ShouldMatchRebuiltSnapshot() {
+        List<Employee> bySalary = employees.stream()
+                .sorted(Comparator.comparing(Employee::getSalary))
+                .toList();
+        Employee lowest = bySalary.get(0);
+        Employee highest = bySalary.get(bySalary.size() - 1);
+        Employee sameTitleAsLowest =
+                new Employee("id-new", "New Hire", lowest.getSalary(), 30, lowest.getTitle(), null);
+        List<Employee> expected = new ArrayList<>(employees);
+        expected.remove(lowest);
+        expected.remove(highest);
+        expected.add(sameTitleAsLowest);
+
+        for (EmployeeSnapshot.Layout layout : EmployeeSnapshot.Layout.values()) {
+            EmployeeSnapshot patched = layout.snapshotOf(employees);
+            when(cacheService.getSnapshot()).thenReturn(patched);
+            analyticsService.getSalaryStatistics();
+            patched = patched.withAdded(sameTitleAsLowest).withRemovedAll(List.of(lowest.getId(), highest.getId()));
+
+            when(cacheService.getSnapshot()).thenReturn(patched);
+            SalaryStatistics incremental = analyticsService.getSalaryStatistics();
+            SortedMap<String, SalaryStatistics> incrementalByTitle = analyticsService.getSalaryStatisticsByTitle();
+            when(cacheService.getSnapshot()).thenReturn(EmployeeSnapshot.of(expected));
+
+            assertEquals(analyticsService.getSalaryStatistics(), incremental, layout.name());
+            assertEquals(analyticsService.getSalaryStatisticsByTitle(), incrementalByTitle, layout.name());
+            assertEquals(bySalary.get(bySalary.size() - 2).getSalary(), incremental.max(), layout.name());
+        }
+    }
+
+    @Test
+    public void testGetAgeHistogram_ShouldCountEveryAgeInAlignedBands() {
+        when(cacheService.getSnapshot()).thenReturn(EmployeeSnapshot.of(employees));
+
+        AgeHistogram histogram = analyticsService.getAgeHistogram(10);
+
+        assertEquals(0, histogram.unknown());
+        assertEquals(
+                employees.size(),
+                histogram.bands().stream().mapToLong(AgeBand::count).sum());
+        for (AgeBand band : histogram.bands()) {
+            assertEquals(0, band.from() % 10);
+            assertEquals(
+                    employees.stream()
+                            .filter(e -> e.getAge() >= band.from() && e.getAge() <= band.to())
+                            .count(),
+                    band.count());
+        }
+        assertThrows(EmployeeException.class, () -> analyticsService.getAgeHistogram(0));
+    }
+
+    private static void assertWithinOnePercent(List<Integer> sortedSalaries, double quantile, int actual) {
+        int exact = sortedSalaries.get((int) (quantile * (sortedSalaries.size() - 1)));
+        assertEquals(exact, actual, exact * 0.01, "p" + Math.round(quantile * 100));
+    }
+
+    private static Employee randomEmployee(SplittableRandom random, int i) {
+        return new Employee(
+                "id-" + i,
+                "Employee " + i,
+                random.nextInt(30_000, 500_000),
+                random.nextInt(16, 76),
+                "Title " + random.nextInt(8),
+                null);
+    }
+}
@@ -0,0 +1,121 @@
+package com.reliaquest.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.config.CacheConfiguration;
+import com.reliaquest.api.dto.BulkItemResult;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeRequest;
+import com.reliaquest.api.dto.UpstreamResponse;
+import com.reliaquest.api.exception.EmployeeException;
+import com.reliaquest.api.service.EmployeeBulkService;
+import com.reliaquest.api.service.EmployeeCacheService;
+import com.reliaquest.api.service.EmployeeSnapshot;
+import jakarta.validation.Validation;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class EmployeeBulkServiceTest {
+
+    @Mock
+    UpstreamClient upstreamClient;
+
+    @Mock
+    EmployeeCacheService cacheService;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    List<Employee> employees;
+
+    EmployeeBulkService bulkService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        employees = objectMapper.readValue(new File("src/test/resources/test.json"), new TypeReference<>() {});
+        when(cacheService.getSnapshot()).thenReturn(EmployeeSnapshot.of(employees));
+        bulkService = new EmployeeBulkService(
+                upstreamClient,
+                cacheService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new CacheConfiguration().cacheManager(100, Duration.ofMinutes(5), 100, Duration.ofSeconds(30)),
+                4);
+    }
+
+    @Test
+    public void testCreateAll_ShouldReportEachItemAndCreateTheRestInOneCall() {
+        Employee first = new Employee("id-1", "New Hire", 1000, 30, "Engineer", "new@company.com");
+        Employee second = new Employee("id-2", "Other Hire", 2000, 40, "Engineer", "other@company.com");
+        when(upstreamClient.call(eq("create employees"), any())).thenReturn(response(List.of(first, second)));
+
+        List<BulkItemResult> results = bulkService.createAll(List.of(
+                request("New Hire", 1000),
+                request("Maricruz Toy", 1000),
+                request("X", -1),
+                request("Other Hire", 2000)));
+
+        assertEquals(
+                List.of(
+                        BulkItemResult.Status.CREATED,
+                        BulkItemResult.Status.DUPLICATE,
+                        BulkItemResult.Status.INVALID,
+                        BulkItemResult.Status.CREATED),
+                results.stream().map(BulkItemResult::status).toList());
+        assertEquals(2, results.get(2).errors().size());
+        assertSame(second, results.get(3).employee());
+        verify(upstreamClient, times(1)).call(eq("create employees"), any());
+        verify(cacheService).applyCreatedAll(List.of(first, second));
+    }
+
+    @Test
+    public void testDeleteAll_ShouldSkipUnknownAndRepeatedIds() {
+        when(upstreamClient.call(eq("delete employees"), any())).thenReturn(response(List.of(true)));
+        String id = employees.get(0).getId();
+
+        List<BulkItemResult> results = bulkService.deleteAll(List.of(id, "unknown", id));
+
+        assertEquals(
+                List.of(
+                        BulkItemResult.Status.DELETED,
+                        BulkItemResult.Status.NOT_FOUND,
+                        BulkItemResult.Status.DUPLICATE),
+                results.stream().map(BulkItemResult::status).toList());
+        verify(cacheService).applyDeletedAll(List.of(id));
+    }
+
+    @Test
+    public void testCreateAll_WhenBatchTooLarge_ShouldThrowEmployeeException() {
+        List<EmployeeRequest> requests =
+                List.of(request("A a", 1), request("B b", 1), request("C c", 1), request("D d", 1), request("E e", 1));
+
+        assertThrows(EmployeeException.class, () -> bulkService.createAll(requests));
+        verifyNoInteractions(upstreamClient);
+    }
+
+    private static <T> UpstreamResponse<T> response(T data) {
+        UpstreamResponse<T> response = new UpstreamResponse<>();
+        response.setData(data);
+        return response;
+    }
+
+    private static EmployeeRequest request(String name, int salary) {
+        EmployeeRequest request = new EmployeeRequest();
+        request.setName(name);
+        request.setSalary(salary);
+        request.setAge(30);
+        request.setTitle("Engineer");
+        return request;
+    }
+}
@@ -0,0 +1,202 @@
+package com.reliaquest.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeChange;
+import com.reliaquest.api.dto.EmployeeChanges;
+import com.reliaquest.api.dto.UpstreamResponse;
+import com.reliaquest.api.service.EmployeeCacheService;
+import com.reliaquest.api.service.EmployeeSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+public class EmployeeCacheServiceTest {
+
+    ObjectMapper mapper = new ObjectMapper();
+
+    MockRestServiceServer upstream;
+
+    EmployeeCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl("http://upstream");
+        upstream = MockRestServiceServer.bindTo(builder).build();
+        UpstreamClient upstreamClient = new UpstreamClient(
+                builder.build(),
+                new SimpleMeterRegistry(),
+                Duration.ZERO,
+                0,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1),
+                Duration.ZERO);
+        cacheService = new EmployeeCacheService(
+                upstreamClient,
+                mapper,
+                new ConcurrentMapCacheManager(),
+                Duration.ZERO,
+                Duration.ofSeconds(1),
+                EmployeeSnapshot.Layout.OBJECTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheService.stopRefreshing();
+    }
+
+    @Test
+    public void testRefresh_ShouldApplyChangesSinceLastVersion() throws Exception {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            employees.add(employee("id-" + i));
+        }
+        expectStream(employees, "k1-4");
+        upstream.expect(requestTo("http://upstream/employee/changes?since=4&epoch=k1"))
+                .andRespond(withSuccess(
+                        json(changes(
+                                "k1",
+                                8,
+                                new EmployeeChange(5, EmployeeChange.Type.CREATED, employee("id-5")),
+                                new EmployeeChange(6, EmployeeChange.Type.CREATED, employee("id-6")),
+                                new EmployeeChange(7, EmployeeChange.Type.DELETED, employee("id-1")),
+                                new EmployeeChange(8, EmployeeChange.Type.DELETED, employee("id-5")))),
+                        MediaType.APPLICATION_JSON));
+
+        assertEquals(4, cacheService.getSnapshot().size());
+        assertEquals(List.of("id-2", "id-3", "id-4", "id-6"), idsAfterRefresh());
+        upstream.verify();
+    }
+
+    @Test
+    public void testRefresh_WhenChangesAreGone_ShouldFetchFullList() throws Exception {
+        expectStream(List.of(employee("id-1"), employee("id-2")), "k1-2");
+        upstream.expect(requestTo("http://upstream/employee/changes?since=2&epoch=k1"))
+                .andRespond(withStatus(HttpStatus.GONE));
+        upstream.expect(requestTo("http://upstream/employee/stream"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"k1-2\""))
+                .andRespond(
+                        withSuccess(ndjson(List.of(employee("id-7"))), MediaType.parseMediaType("application/x-ndjson"))
+                                .header(HttpHeaders.ETAG, "\"k2-1\""));
+
+        assertEquals(2, cacheService.getSnapshot().size());
+        assertEquals(List.of("id-7"), idsAfterRefresh());
+        upstream.verify();
+    }
+
+    @Test
+    public void testPatch_WhenSnapshotCantApplyIt_ShouldFetchFullList() throws Exception {
+        expectStream(List.of(employee("id-1"), employee("id-2")), "k1-2");
+        expectFullResync(List.of(employee("id-1"), employee("id-3")));
+
+        assertEquals(2, cacheService.getSnapshot().size());
+        String etag = cacheService.getETag();
+        cacheService.applyCreated(employee(null));
+
+        assertEquals(List.of("id-1", "id-3"), idsOnceChanged(etag));
+        upstream.verify();
+    }
+
+    @Test
+    public void testApplyCreated_WhenIdIsAlreadyPresent_ShouldFetchFullList() throws Exception {
+        expectStream(List.of(employee("id-1"), employee("id-2")), "k1-2");
+        expectFullResync(List.of(employee("id-1"), employee("id-2"), employee("id-3")));
+
+        assertEquals(2, cacheService.getSnapshot().size());
+        String etag = cacheService.getETag();
+        cacheService.applyCreated(employee("id-2"));
+
+        assertEquals(List.of("id-1", "id-2", "id-3"), idsOnceChanged(etag));
+        upstream.verify();
+    }
+
+    @Test
+    public void testApplyDeleted_WhenIdIsAlreadyGone_ShouldFetchFullList() throws Exception {
+        expectStream(List.of(employee("id-1"), employee("id-2")), "k1-2");
+        expectFullResync(List.of(employee("id-2")));
+
+        assertEquals(2, cacheService.getSnapshot().size());
+        String etag = cacheService.getETag();
+        cacheService.applyDeletedAll(List.of("id-1", "id-9"));
+
+        assertEquals(List.of("id-2"), idsOnceChanged(etag));
+        upstream.verify();
+    }
+
+    private void expectFullResync(List<Employee> employees) {
+        upstream.expect(requestTo("http://upstream/employee/stream"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(ndjson(employees), MediaType.parseMediaType("application/x-ndjson"))
+                        .header(HttpHeaders.ETAG, "\"k1-2\""));
+    }
+
+    private void expectStream(List<Employee> employees, String version) throws Exception {
+        upstream.expect(requestTo("http://upstream/employee/stream"))
+                .andRespond(withSuccess(ndjson(employees), MediaType.parseMediaType("application/x-ndjson"))
+                        .header(HttpHeaders.ETAG, "\"" + version + "\""));
+    }
+
+    /** Requests a background refresh and waits for it to install a new snapshot. */
+    private List<String> idsAfterRefresh() throws InterruptedException {
+        String etag = cacheService.getETag();
+        cacheService.requestRefresh();
+        return idsOnceChanged(etag);
+    }
+
+    /** Waits for a snapshot other than the one tagged {@code etag} to be installed. */
+    private List<String> idsOnceChanged(String etag) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (etag.equals(cacheService.getETag()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return cacheService.getSnapshot().getEmployees().stream()
+                .map(Employee::getId)
+                .sorted()
+                .toList();
+    }
+
+    private String ndjson(List<Employee> employees) {
+        return employees.stream().map(this::json).collect(Collectors.joining("\n"));
+    }
+
+    private String json(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UpstreamResponse<EmployeeChanges> changes(String epoch, long version, EmployeeChange... changes) {
+        EmployeeChanges data = new EmployeeChanges();
+        data.setEpoch(epoch);
+        data.setVersion(version);
+        data.setChanges(List.of(changes));
+        UpstreamResponse<EmployeeChanges> response = new UpstreamResponse<>();
+        response.setData(data);
+        return response;
+    }
+
+    private static Employee employee(String id) {
+        return new Employee(id, "Employee " + id, 1000, 30, "Engineer", id + "@company.com");
+    }
+}
@@ -0,0 +1,165 @@
+package com.reliaquest.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.manyTimes;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeChange;
+import com.reliaquest.api.service.EmployeeCacheService;
+import com.reliaquest.api.service.EmployeeChangeSubscriber;
+import com.reliaquest.api.service.EmployeeSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.response.DefaultResponseCreator;
+import org.springframework.web.client.RestClient;
+
+public class EmployeeChangeSubscriberTest {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    ObjectMapper mapper = new ObjectMapper();
+
+    MockRestServiceServer upstream;
+
+    EmployeeCacheService cacheService;
+
+    EmployeeChangeSubscriber subscriber;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl("http://upstream");
+        upstream = MockRestServiceServer.bindTo(builder).ignoreExpectOrder(true).build();
+        RestClient restClient = builder.build();
+        UpstreamClient upstreamClient = new UpstreamClient(
+                restClient,
+                new SimpleMeterRegistry(),
+                Duration.ZERO,
+                0,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1),
+                Duration.ZERO);
+        cacheService = new EmployeeCacheService(
+                upstreamClient,
+                mapper,
+                new ConcurrentMapCacheManager(),
+                Duration.ZERO,
+                Duration.ofSeconds(1),
+                EmployeeSnapshot.Layout.OBJECTS);
+        subscriber = new EmployeeChangeSubscriber(
+                restClient, cacheService, mapper, true, Duration.ofMillis(20), Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriber.stop();
+        cacheService.stopRefreshing();
+    }
+
+    @Test
+    public void testStream_ShouldResumeAfterDisconnectAndResyncOnReset() throws Exception {
+        // Expectations matching the same request are used up in the order they're declared.
+        expectStream(once(), List.of(employee("id-1"), employee("id-2")), "k1-2");
+        expectStream(manyTimes(), List.of(employee("id-9")), "k2-1");
+        expectEvents(
+                once(),
+                "k1-2",
+                event("ready", "2"),
+                event("created", json(new EmployeeChange(3, EmployeeChange.Type.CREATED, employee("id-3")))));
+        expectEvents(manyTimes(), "k1-3", event("reset", "Changes since k1-3 are no longer available"));
+        expectEvents(manyTimes(), "k2-1", event("ready", "1"));
+
+        assertEquals(2, cacheService.getSnapshot().size());
+        subscriber.start();
+
+        upstream.verify(Duration.ofSeconds(5));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (cacheService.getSnapshot().size() != 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(
+                List.of("id-9"),
+                cacheService.getSnapshot().getEmployees().stream()
+                        .map(Employee::getId)
+                        .toList());
+    }
+
+    @Test
+    public void testStream_AfterFailure_ShouldWaitForResyncBeforeResubscribing() throws Exception {
+        expectStream(once(), List.of(employee("id-1"), employee("id-2")), "k1-2");
+        // Slow enough that resubscribing from the old version would come first.
+        upstream.expect(once(), requestTo("http://upstream/employee/stream")).andRespond(request -> {
+            sleep(Duration.ofMillis(300));
+            return stream(List.of(employee("id-9")), "k1-7").createResponse(request);
+        });
+        expectEvents(
+                once(),
+                "k1-2",
+                event("created", json(new EmployeeChange(5, EmployeeChange.Type.CREATED, employee("id-5")))));
+        expectEvents(manyTimes(), "k1-7", event("ready", "7"));
+
+        assertEquals(2, cacheService.getSnapshot().size());
+        subscriber.start();
+
+        upstream.verify(Duration.ofSeconds(5));
+        assertEquals(
+                List.of("id-9"),
+                cacheService.getSnapshot().getEmployees().stream()
+                        .map(Employee::getId)
+                        .toList());
+    }
+
+    private void expectStream(ExpectedCount count, List<Employee> employees, String version) {
+        upstream.expect(count, requestTo("http://upstream/employee/stream")).andRespond(stream(employees, version));
+    }
+
+    private DefaultResponseCreator stream(List<Employee> employees, String version) {
+        return withSuccess(employees.stream().map(this::json).collect(Collectors.joining("\n")), APPLICATION_NDJSON)
+                .header(HttpHeaders.ETAG, "\"" + version + "\"");
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void expectEvents(ExpectedCount count, String lastEventId, String... events) {
+        upstream.expect(count, requestTo("http://upstream/employee/events"))
+                .andExpect(header("Last-Event-ID", lastEventId))
+                .andRespond(withSuccess(String.join("", events), MediaType.TEXT_EVENT_STREAM));
+    }
+
+    private static String event(String name, String data) {
+        return "event:" + name + "\ndata:" + data + "\n\n";
+    }
+
+    private String json(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Employee employee(String id) {
+        return new Employee(id, "Employee " + id, 1000, 30, "Engineer", id + "@company.com");
+    }
+}
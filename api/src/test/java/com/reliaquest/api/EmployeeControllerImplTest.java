@@ -14,6 +14,7 @@ import com.reliaquest.api.exception.EmployeeException;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.service.EmployeeCacheService;
 import com.reliaquest.api.service.EmployeeServiceImpl;
+import com.reliaquest.api.service.EmployeeSnapshot;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
@@ -270,4 +271,56 @@ public class EmployeeControllerImplTest {
                 })
                 .andDo(print());
     }
+
+    @Test
+    public void testGetAllEmployees_WithMatchingETag_ShouldReturnNotModifiedWithoutQuerying() throws Exception {
+        Mockito.when(cacheService.getETag()).thenReturn("epoch-7");
+        Mockito.when(employeeService.findAll()).thenReturn(employees);
+
+        mockMvc.perform(get(API_END_POINT))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"epoch-7\""));
+
+        Mockito.clearInvocations(employeeService);
+        mockMvc.perform(get(API_END_POINT).header("If-None-Match", "\"epoch-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        Mockito.verifyNoInteractions(employeeService);
+
+        Mockito.when(cacheService.getETag()).thenReturn("epoch-8");
+        mockMvc.perform(get(API_END_POINT).header("If-None-Match", "\"epoch-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"epoch-8\""));
+    }
+
+    @Test
+    public void testGetEmployeeById_FromSnapshot_ShouldReturnNotModifiedForMatchingETag() throws Exception {
+        Employee employee = employees.get(1);
+        Mockito.when(cacheService.getETag()).thenReturn("epoch-7");
+        Mockito.when(cacheService.getSnapshot()).thenReturn(EmployeeSnapshot.of(employees));
+        Mockito.when(employeeService.findById(employee.getId())).thenReturn(employee);
+
+        mockMvc.perform(get(API_END_POINT + "/" + employee.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"epoch-7\""));
+        mockMvc.perform(get(API_END_POINT + "/" + employee.getId()).header("If-None-Match", "\"epoch-7\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void testGetEmployeeById_NotInSnapshot_ShouldIgnoreSnapshotETag() throws Exception {
+        Employee employee = employees.get(1);
+        String unknownId = UUID.randomUUID().toString();
+        Mockito.when(cacheService.getETag()).thenReturn("epoch-7");
+        Mockito.when(cacheService.getSnapshot()).thenReturn(EmployeeSnapshot.of(List.of()));
+        Mockito.when(employeeService.findById(employee.getId())).thenReturn(employee);
+        Mockito.when(employeeService.findById(unknownId)).thenThrow(new EmployeeNotFoundException(unknownId));
+
+        mockMvc.perform(get(API_END_POINT + "/" + employee.getId()).header("If-None-Match", "\"epoch-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.id").value(employee.getId()));
+        mockMvc.perform(get(API_END_POINT + "/" + unknownId).header("If-None-Match", "\"epoch-7\""))
+                .andExpect(status().isNotFound());
+    }
 }
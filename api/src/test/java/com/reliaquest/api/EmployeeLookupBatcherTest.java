@@ -0,0 +1,126 @@
+package com.reliaquest.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.config.CacheConfiguration;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.UpstreamResponse;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import com.reliaquest.api.service.EmployeeCacheService;
+import com.reliaquest.api.service.EmployeeLookupBatcher;
+import com.reliaquest.api.service.EmployeeServiceImpl;
+import com.reliaquest.api.service.EmployeeSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+public class EmployeeLookupBatcherTest {
+
+    @Mock
+    UpstreamClient upstreamClient;
+
+    EmployeeLookupBatcher batcher;
+
+    ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        batcher = new EmployeeLookupBatcher(upstreamClient, new SimpleMeterRegistry(), Duration.ofMillis(200), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void testFind_WhenCalledConcurrently_ShouldShareOneUpstreamCall() {
+        Employee first = new Employee("id-1", "First", 1000, 30, "Engineer", null);
+        Employee second = new Employee("id-2", "Second", 2000, 40, "Engineer", null);
+        UpstreamResponse<List<Employee>> response = new UpstreamResponse<>();
+        response.setData(List.of(second, first));
+        when(upstreamClient.call(eq("fetch employees by id"), any())).thenReturn(response);
+
+        List<CompletableFuture<Optional<Employee>>> lookups =
+                List.of("id-1", "id-2", "id-1", "unknown", "id-2").stream()
+                        .map(id -> CompletableFuture.supplyAsync(() -> batcher.find(id), callers))
+                        .toList();
+
+        assertEquals(
+                List.of(
+                        Optional.of(first),
+                        Optional.of(second),
+                        Optional.of(first),
+                        Optional.empty(),
+                        Optional.of(second)),
+                lookups.stream().map(CompletableFuture::join).toList());
+        verify(upstreamClient, times(1)).call(eq("fetch employees by id"), any());
+    }
+
+    @Test
+    public void testFind_WhenUpstreamFails_ShouldThrowToEveryCaller() {
+        when(upstreamClient.call(eq("fetch employees by id"), any()))
+                .thenThrow(new UpstreamRateLimitedException("fetch employees by id", Duration.ofSeconds(5)));
+
+        List<CompletableFuture<Optional<Employee>>> lookups = List.of("id-1", "id-2").stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> batcher.find(id), callers))
+                .toList();
+
+        for (CompletableFuture<Optional<Employee>> lookup : lookups) {
+            Exception exception = assertThrows(Exception.class, lookup::join);
+            assertInstanceOf(UpstreamRateLimitedException.class, exception.getCause());
+        }
+        verify(upstreamClient, times(1)).call(eq("fetch employees by id"), any());
+    }
+
+    @Test
+    public void testFindById_WhenBatchFails_ShouldNotCacheMisses() {
+        EmployeeCacheService cacheService = mock(EmployeeCacheService.class);
+        when(cacheService.getSnapshot()).thenReturn(EmployeeSnapshot.of(List.of()));
+        EmployeeServiceImpl employeeService = new EmployeeServiceImpl(
+                upstreamClient,
+                new ObjectMapper(),
+                cacheService,
+                batcher,
+                new ConcurrentMapCacheManager(
+                        CacheConfiguration.EMPLOYEE_BY_ID, CacheConfiguration.EMPLOYEE_NOT_FOUND));
+        UpstreamResponse<List<Employee>> emptyResponse = new UpstreamResponse<>();
+        emptyResponse.setData(List.of());
+        when(upstreamClient.call(eq("fetch employees by id"), any()))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "", null, null, null))
+                .thenReturn(emptyResponse);
+
+        List<CompletableFuture<Employee>> failed = List.of("id-1", "id-2").stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> employeeService.findById(id), callers))
+                .toList();
+        for (CompletableFuture<Employee> lookup : failed) {
+            Exception exception = assertThrows(Exception.class, lookup::join);
+            assertInstanceOf(HttpServerErrorException.class, exception.getCause());
+        }
+
+        // Not cached as misses: looked up again, and only then found missing and cached.
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.findById("id-1"));
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.findById("id-1"));
+        verify(upstreamClient, times(2)).call(eq("fetch employees by id"), any());
+    }
+}
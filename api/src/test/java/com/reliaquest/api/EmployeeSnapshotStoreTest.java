@@ -0,0 +1,88 @@
+package com.reliaquest.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.service.EmployeeSnapshotStore;
+import com.reliaquest.api.service.EmployeeSnapshotStore.StoredSnapshot;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class EmployeeSnapshotStoreTest {
+
+    EmbeddedDatabase database;
+
+    EmployeeSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(UUID.randomUUID().toString())
+                .addScript("schema.sql")
+                .build();
+        store = new EmployeeSnapshotStore(new JdbcTemplate(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testLoad_WhenNothingSaved_ShouldBeEmpty() {
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    public void testSave_ShouldReplaceTheSavedSnapshot() {
+        Instant syncedAt = Instant.parse("2024-05-01T10:15:30.123Z");
+        store.save(new StoredSnapshot(
+                List.of(employee("id-1", "First", 1000), employee("id-2", "Second", 2000)), "k3x9q1", 52L, syncedAt));
+        store.save(
+                new StoredSnapshot(List.of(employee("id-3", "Third", null)), "k3x9q1", 53L, syncedAt.plusSeconds(10)));
+
+        StoredSnapshot loaded = store.load().orElseThrow();
+
+        assertEquals(1, loaded.employees().size());
+        Employee restored = loaded.employees().get(0);
+        assertEquals("id-3", restored.getId());
+        assertEquals("Third", restored.getName());
+        assertNull(restored.getSalary());
+        assertEquals(30, restored.getAge());
+        assertEquals("Engineer", restored.getTitle());
+        assertEquals("third@company.com", restored.getEmail());
+        assertEquals("k3x9q1", loaded.upstreamEpoch());
+        assertEquals(53L, loaded.upstreamVersion());
+        assertEquals(syncedAt.plusSeconds(10), loaded.syncedAt());
+    }
+
+    @Test
+    public void testSaveVersion_ShouldKeepEmployeesInOrder() {
+        List<Employee> employees = List.of(
+                employee("id-2", "Second", 2000), employee("id-1", "First", 1000), employee("id-3", "Third", 3000));
+        store.save(new StoredSnapshot(employees, "k3x9q1", 52L, Instant.EPOCH));
+        store.saveVersion(new StoredSnapshot(null, null, null, Instant.EPOCH.plusSeconds(5)));
+
+        StoredSnapshot loaded = store.load().orElseThrow();
+
+        assertEquals(
+                List.of("id-2", "id-1", "id-3"),
+                loaded.employees().stream().map(Employee::getId).toList());
+        assertNull(loaded.upstreamEpoch());
+        assertNull(loaded.upstreamVersion());
+        assertEquals(Instant.EPOCH.plusSeconds(5), loaded.syncedAt());
+    }
+
+    private static Employee employee(String id, String name, Integer salary) {
+        return new Employee(id, name, salary, 30, "Engineer", name.toLowerCase() + "@company.com");
+    }
+}
@@ -0,0 +1,347 @@
+package com.reliaquest.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.service.EmployeeSnapshot;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeSnapshotTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    List<Employee> employees;
+
+    EmployeeSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        File file = new File("src/test/resources/test.json");
+        employees = objectMapper.readValue(file, new TypeReference<>() {});
+        snapshot = EmployeeSnapshot.of(employees);
+    }
+
+    @Test
+    public void testFindById_ShouldReturnIndexedEmployee() {
+        Employee expected = employees.get(3);
+
+        assertSame(expected, snapshot.findById(expected.getId()).orElseThrow());
+        assertTrue(snapshot.findById("unknown").isEmpty());
+    }
+
+    @Test
+    public void testFindByExactName_ShouldBeCaseSensitive() {
+        assertTrue(snapshot.findByExactName("Maricruz Toy").isPresent());
+        assertTrue(snapshot.findByExactName("maricruz toy").isEmpty());
+    }
+
+    @Test
+    public void testFindByNameContaining_ShouldMatchIgnoringCaseInUpstreamOrder() {
+        List<Employee> expected = employees.stream()
+                .filter(e -> e.getName().toLowerCase().contains("mack"))
+                .toList();
+
+        assertEquals(expected, snapshot.findByNameContaining("MACK"));
+    }
+
+    @Test
+    public void testSalaryQueries_ShouldMatchFullSort() {
+        List<String> expected = employees.stream()
+                .sorted(Comparator.comparing(Employee::getSalary).reversed())
+                .limit(10)
+                .map(Employee::getName)
+                .toList();
+
+        assertEquals(expected, snapshot.getTopEarnerNames(10));
+        assertEquals(394420, snapshot.getHighestSalary().orElseThrow());
+        assertTrue(EmployeeSnapshot.empty().getHighestSalary().isEmpty());
+    }
+
+    @Test
+    public void testWithAddedAndWithRemoved_ShouldMatchRebuiltSnapshot() {
+        Employee created = new Employee("new-id", "Maricruz Toy", 394420, 30, "Engineer", "new@company.com");
+
+        EmployeeSnapshot added = snapshot.withAdded(created);
+        List<Employee> appended = new ArrayList<>(employees);
+        appended.add(created);
+        EmployeeSnapshot rebuilt = EmployeeSnapshot.of(appended);
+
+        assertEquals(rebuilt.getEmployees(), added.getEmployees());
+        assertEquals(rebuilt.getTopEarnerNames(10), added.getTopEarnerNames(10));
+        assertSame(employees.get(1), added.findByExactName("Maricruz Toy").orElseThrow());
+        assertEquals(List.of(created), added.findByNameContaining("TOY").subList(1, 2));
+
+        EmployeeSnapshot removed = added.withRemoved(employees.get(1).getId());
+        assertSame(created, removed.findByExactName("Maricruz Toy").orElseThrow());
+        assertEquals(employees.size(), removed.size());
+        assertTrue(removed.findById(employees.get(1).getId()).isEmpty());
+        assertEquals(394420, removed.getHighestSalary().orElseThrow());
+    }
+
+    @Test
+    public void testSalaryQueries_AfterRandomPatches_ShouldMatchStableSort() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Employee> expected = new ArrayList<>(employees);
+        EmployeeSnapshot patched = snapshot;
+
+        for (int i = 0; i < 500; i++) {
+            if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                // Few distinct salaries, so most inserts tie with employees already ranked.
+                Employee created = new Employee(
+                        "id-" + i, "Employee " + i, 394420 - random.nextInt(5) * 1000, 30, "Engineer", null);
+                expected.add(created);
+                patched = patched.withAdded(created);
+            } else {
+                Employee removed = expected.remove(random.nextInt(expected.size()));
+                patched = patched.withRemoved(removed.getId());
+            }
+
+            List<String> topNames = expected.stream()
+                    .sorted(Comparator.comparing(Employee::getSalary).reversed())
+                    .limit(25)
+                    .map(Employee::getName)
+                    .toList();
+            assertEquals(topNames, patched.getTopEarnerNames(25));
+            assertEquals(
+                    expected.stream().mapToInt(Employee::getSalary).max().orElseThrow(),
+                    patched.getHighestSalary().orElseThrow());
+        }
+        assertEquals(
+                patched.getTopEarnerNames(10), EmployeeSnapshot.of(expected).getTopEarnerNames(10));
+    }
+
+    @Test
+    public void testPatches_WhenOutOfSync_ShouldThrowIllegalStateException() {
+        EmployeeSnapshot columnar = EmployeeSnapshot.columnar(employees, false);
+        for (EmployeeSnapshot layout : List.of(snapshot, columnar)) {
+            assertThrows(IllegalStateException.class, () -> layout.withAdded(employees.get(0)));
+            assertThrows(IllegalStateException.class, () -> layout.withRemoved("unknown"));
+            assertThrows(
+                    IllegalStateException.class,
+                    () -> layout.withRemovedAll(
+                            List.of(employees.get(0).getId(), employees.get(0).getId())));
+        }
+    }
+
+    @Test
+    public void testColumnarLayout_AfterRandomPatches_ShouldAnswerLikeObjectLayout() {
+        SplittableRandom random = new SplittableRandom(7);
+        EmployeeSnapshot objects = snapshot;
+        EmployeeSnapshot columnar = EmployeeSnapshot.columnar(employees, true);
+        List<String> ids =
+                new ArrayList<>(employees.stream().map(Employee::getId).toList());
+
+        for (int i = 0; i < 300; i++) {
+            if (random.nextInt(3) > 0 || ids.isEmpty()) {
+                // Repeated names, non-ASCII names and missing fields, with few distinct salaries so that most tie.
+                Employee created = new Employee(
+                        "id-" + i,
+                        random.nextBoolean() ? "Maricruz Toy" : "Émile Mäck " + i,
+                        random.nextInt(10) == 0 ? null : 394420 - random.nextInt(5) * 1000,
+                        random.nextInt(10) == 0 ? null : 16 + random.nextInt(60),
+                        random.nextBoolean() ? "Engineer" : null,
+                        random.nextBoolean() ? null : "new" + i + "@company.com");
+                ids.add(created.getId());
+                objects = objects.withAdded(created);
+                columnar = columnar.withAdded(created);
+            } else {
+                String removed = ids.remove(random.nextInt(ids.size()));
+                objects = objects.withRemoved(removed);
+                columnar = columnar.withRemoved(removed);
+            }
+
+            String id = ids.isEmpty() ? "unknown" : ids.get(random.nextInt(ids.size()));
+            assertEquals(describe(objects.getEmployees()), describe(columnar.getEmployees()));
+            assertEquals(
+                    describe(objects.findById(id).stream().toList()),
+                    describe(columnar.findById(id).stream().toList()));
+            assertEquals(
+                    describe(objects.findByExactName("Maricruz Toy").stream().toList()),
+                    describe(columnar.findByExactName("Maricruz Toy").stream().toList()));
+            for (String fragment : List.of("MACK", "mäck", "toy", "")) {
+                assertEquals(
+                        describe(objects.findByNameContaining(fragment)),
+                        describe(columnar.findByNameContaining(fragment)));
+            }
+            assertEquals(objects.getTopEarnerNames(25), columnar.getTopEarnerNames(25));
+            assertEquals(objects.getHighestSalary(), columnar.getHighestSalary());
+        }
+        assertEquals(EmployeeSnapshot.Layout.COLUMNAR_OFF_HEAP, columnar.getLayout());
+        assertTrue(columnar.getEstimatedBytesPerEmployee() < objects.getEstimatedBytesPerEmployee());
+    }
+
+    @Test
+    public void testColumnarLayout_WhenPatchedTwiceFromOneSnapshot_ShouldKeepBothApart() {
+        EmployeeSnapshot base = EmployeeSnapshot.columnar(employees, true)
+                .withAdded(new Employee("id-a", "Ann", 1000, 30, "Engineer", "ann@company.com"))
+                .withRemoved(employees.get(0).getId());
+        List<String> before = describe(base.getEmployees());
+
+        // Both append where the base's last append ended; only one of them can write there.
+        EmployeeSnapshot first = base.withAdded(new Employee("id-b", "Bob", 2000, 40, "Engineer", "bob@company.com"));
+        EmployeeSnapshot second =
+                base.withAdded(new Employee("id-c", "Cleo", 3000, 50, "Engineer", "cleo@company.com"));
+
+        assertEquals(before, describe(base.getEmployees()));
+        assertEquals("Bob", first.findById("id-b").orElseThrow().getName());
+        assertTrue(first.findById("id-c").isEmpty());
+        assertEquals("Cleo", second.findById("id-c").orElseThrow().getName());
+        assertEquals(
+                "cleo@company.com", second.findByExactName("Cleo").orElseThrow().getEmail());
+        assertTrue(second.findById("id-b").isEmpty());
+        assertEquals(before, describe(first.getEmployees().subList(0, base.size())));
+        assertEquals(before, describe(second.getEmployees().subList(0, base.size())));
+    }
+
+    @Test
+    public void testFindByNameContaining_AfterRandomPatches_ShouldMatchFullScan() {
+        SplittableRandom random = new SplittableRandom(13);
+        List<String> fragments = List.of("mack", "TOY", "ick", "é", "mäc", "y k", "zzz", "Maricruz Toy", "");
+
+        for (EmployeeSnapshot.Layout layout : EmployeeSnapshot.Layout.values()) {
+            List<Employee> expected = new ArrayList<>(employees);
+            EmployeeSnapshot patched = layout.snapshotOf(expected);
+            // Searched once up front, so the index is built here and patched from then on.
+            patched.findByNameContaining("mack");
+
+            // Mostly removals at first, enough to leave more stale keys than live ones, then mostly creates.
+            for (int i = 0; i < 400; i++) {
+                boolean create = expected.isEmpty() || random.nextInt(4) < (i < 60 ? 1 : 3);
+                if (create) {
+                    Employee created = new Employee(
+                            "id-" + i, random.nextBoolean() ? "Émile Mäck " + i : null, 394420, 30, "Engineer", null);
+                    expected.add(created);
+                    patched = patched.withAdded(created);
+                } else {
+                    Employee removed = expected.remove(random.nextInt(expected.size()));
+                    patched = patched.withRemoved(removed.getId());
+                }
+
+                for (String fragment : fragments) {
+                    String needle = fragment.toLowerCase();
+                    List<Employee> matches = expected.stream()
+                            .filter(e -> e.getName() != null
+                                    ? e.getName().toLowerCase().contains(needle)
+                                    : needle.isEmpty())
+                            .toList();
+                    assertEquals(describe(matches), describe(patched.findByNameContaining(fragment)), fragment);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSalaryQueries_AfterRandomBatches_ShouldMatchStableSortInEveryLayout() {
+        for (EmployeeSnapshot.Layout layout : EmployeeSnapshot.Layout.values()) {
+            SplittableRandom random = new SplittableRandom(21);
+            List<Employee> expected = new ArrayList<>();
+            for (int i = 0; i < 5000; i++) {
+                expected.add(generated("base-" + i, random));
+            }
+            EmployeeSnapshot patched = layout.snapshotOf(expected);
+            // Asked once up front, so the ranking is built here and patched from then on.
+            patched.getHighestSalary();
+
+            for (int i = 0; i < 200; i++) {
+                if (random.nextBoolean() || expected.isEmpty()) {
+                    List<Employee> created = new ArrayList<>();
+                    for (int j = random.nextInt(1, 60); j > 0; j--) {
+                        created.add(generated("id-" + i + "-" + j, random));
+                    }
+                    expected.addAll(created);
+                    patched = patched.withAddedAll(created);
+                } else {
+                    List<String> removed = new ArrayList<>();
+                    for (int j = Math.min(expected.size(), random.nextInt(1, 120)); j > 0; j--) {
+                        removed.add(
+                                expected.remove(random.nextInt(expected.size())).getId());
+                    }
+                    patched = patched.withRemovedAll(removed);
+                }
+
+                List<Employee> ranked = expected.stream()
+                        .sorted(Comparator.comparing(
+                                        Employee::getSalary, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+                                .reversed())
+                        .toList();
+                int limit = i % 50 == 0 ? expected.size() + 1 : 100;
+                assertEquals(
+                        ranked.stream().limit(limit).map(Employee::getName).toList(),
+                        patched.getTopEarnerNames(limit),
+                        layout + " after " + i + " patches");
+                assertEquals(
+                        expected.stream()
+                                .map(Employee::getSalary)
+                                .filter(salary -> salary != null)
+                                .mapToInt(Integer::intValue)
+                                .max(),
+                        patched.getHighestSalary());
+                Employee probe = expected.get(random.nextInt(expected.size()));
+                assertEquals(
+                        probe.toString(),
+                        patched.findById(probe.getId()).orElseThrow().toString());
+                assertEquals(
+                        expected.stream()
+                                .filter(e -> probe.getName().equals(e.getName()))
+                                .findFirst()
+                                .orElseThrow()
+                                .toString(),
+                        patched.findByExactName(probe.getName()).orElseThrow().toString());
+            }
+            assertEquals(describe(expected), describe(patched.getEmployees()));
+        }
+    }
+
+    @Test
+    public void testSalaryQueries_WhenPatchedTwiceFromOneSnapshot_ShouldKeepBothApart() {
+        SplittableRandom random = new SplittableRandom(5);
+        List<Employee> generated = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            generated.add(generated("base-" + i, random));
+        }
+        for (EmployeeSnapshot.Layout layout : EmployeeSnapshot.Layout.values()) {
+            EmployeeSnapshot base = layout.snapshotOf(generated);
+            List<String> before = base.getTopEarnerNames(50);
+
+            EmployeeSnapshot richer = base.withAdded(new Employee("id-a", "Ann", 10_000_000, 30, null, null));
+            EmployeeSnapshot poorer = base.withRemovedAll(
+                    generated.stream().limit(1500).map(Employee::getId).toList());
+
+            assertEquals(before, base.getTopEarnerNames(50));
+            assertEquals(base.getHighestSalary(), EmployeeSnapshot.of(generated).getHighestSalary());
+            assertEquals("Ann", richer.getTopEarnerNames(1).get(0));
+            assertEquals(10_000_000, richer.getHighestSalary().orElseThrow());
+            assertEquals(
+                    EmployeeSnapshot.of(generated.subList(1500, 3000)).getTopEarnerNames(50),
+                    poorer.getTopEarnerNames(50));
+            assertTrue(poorer.withRemovedAll(
+                            generated.stream().skip(1500).map(Employee::getId).toList())
+                    .getHighestSalary()
+                    .isEmpty());
+        }
+    }
+
+    /** Few distinct salaries and names, so most of them tie, and some missing salaries. */
+    private static Employee generated(String id, SplittableRandom random) {
+        return new Employee(
+                id,
+                "Employee " + random.nextInt(500),
+                random.nextInt(20) == 0 ? null : 50_000 + random.nextInt(200) * 1000,
+                30,
+                "Engineer",
+                id + "@company.com");
+    }
+
+    private static List<String> describe(List<Employee> employees) {
+        return employees.stream().map(Employee::toString).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic employee data for the benchmarks. Names are drawn from small pools rather than Datafaker so that a
+ * million employees build in well under a second and every fork sees the same data.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    private static final String[] FIRST_NAMES = {
+        "Ada",
+        "Alan",
+        "Barbara",
+        "Brian",
+        "Carol",
+        "Dennis",
+        "Edsger",
+        "Frances",
+        "Grace",
+        "Guido",
+        "Hedy",
+        "Ivan",
+        "James",
+        "Ken",
+        "Linus",
+        "Margaret",
+        "Niklaus",
+        "Radia",
+        "Sophie",
+        "Tim"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Allen", "Backus", "Cerf", "Dijkstra", "Engelbart", "Floyd", "Gosling", "Hamilton", "Hopper", "Kernighan",
+        "Knuth", "Lamarr", "Liskov", "Lovelace", "Perlman", "Ritchie", "Stroustrup", "Thompson", "Torvalds", "Wirth"
+    };
+
+    private static final String[] TITLES = {
+        "Engineer", "Senior Engineer", "Manager", "Director", "Analyst", "Designer", "Consultant", "Architect"
+    };
+
+    private BenchmarkData() {}
+
+    static List<Employee> employees(int size) {
+        Random random = new Random(SEED);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(new Employee(
+                    new UUID(random.nextLong(), random.nextLong()).toString(),
+                    name(random, i),
+                    salary(random),
+                    age(random),
+                    TITLES[random.nextInt(TITLES.length)],
+                    "employee" + i + "@company.com"));
+        }
+        return employees;
+    }
+
+    static List<MockEmployee> mockEmployees(int size) {
+        return employees(size).stream()
+                .map(employee -> new MockEmployee(
+                        UUID.fromString(employee.getId()),
+                        employee.getName(),
+                        employee.getSalary(),
+                        employee.getAge(),
+                        employee.getTitle(),
+                        employee.getEmail()))
+                .toList();
+    }
+
+    private static String name(Random random, int index) {
+        // The suffix keeps names mostly unique, as they are with Datafaker, while pool names still match many.
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                + " " + Integer.toString(index, 36);
+    }
+
+    private static int salary(Random random) {
+        return 30_000 + random.nextInt(470_000);
+    }
+
+    private static int age(Random random) {
+        return 16 + random.nextInt(60);
+    }
+}
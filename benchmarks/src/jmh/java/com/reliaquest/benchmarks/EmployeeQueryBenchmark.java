@@ -0,0 +1,116 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.client.UpstreamClient;
+import com.reliaquest.api.config.CacheConfiguration;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.service.EmployeeCacheService;
+import com.reliaquest.api.service.EmployeeLookupBatcher;
+import com.reliaquest.api.service.EmployeeServiceImpl;
+import com.reliaquest.api.service.EmployeeSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Read paths of {@link EmployeeServiceImpl} against an already loaded snapshot, so only the in-memory query cost is
+ * measured. The upstream client is never called.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeQueryBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    int size;
+
+    @Param({"OBJECTS", "COLUMNAR"})
+    EmployeeSnapshot.Layout layout;
+
+    EmployeeSnapshot snapshot;
+
+    EmployeeCacheService cacheService;
+
+    EmployeeLookupBatcher lookupBatcher;
+
+    EmployeeServiceImpl service;
+
+    String knownId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Employee> employees = BenchmarkData.employees(size);
+        snapshot = layout.snapshotOf(employees);
+        knownId = employees.get(size / 2).getId();
+
+        CacheManager cacheManager =
+                new CacheConfiguration().cacheManager(10_000, Duration.ofMinutes(5), 10_000, Duration.ofSeconds(30));
+        cacheService = new EmployeeCacheService(null, mapper, cacheManager, Duration.ZERO, Duration.ZERO, layout) {
+            @Override
+            public EmployeeSnapshot getSnapshot() {
+                return snapshot;
+            }
+        };
+        UpstreamClient upstreamClient = new UpstreamClient(
+                RestClient.create(),
+                new SimpleMeterRegistry(),
+                Duration.ZERO,
+                0,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1),
+                Duration.ZERO);
+        lookupBatcher = new EmployeeLookupBatcher(upstreamClient, new SimpleMeterRegistry(), Duration.ZERO, 1);
+        service = new EmployeeServiceImpl(upstreamClient, mapper, cacheService, lookupBatcher, cacheManager);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheService.stopRefreshing();
+        lookupBatcher.stop();
+    }
+
+    /** A pool last name, so roughly one employee in twenty matches. */
+    @Benchmark
+    public List<Employee> findByName() {
+        return service.findByName("knuth");
+    }
+
+    @Benchmark
+    public Object findByNameMiss() {
+        try {
+            return service.findByName("no such employee");
+        } catch (EmployeeNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Employee findById() {
+        return service.findById(knownId);
+    }
+
+    @Benchmark
+    public Integer highestSalary() {
+        return service.getHighestSalaryOfEmployees();
+    }
+
+    @Benchmark
+    public List<String> topTenHighestEarners() {
+        return service.findTopTenHighestEarningEmployeeNames();
+    }
+}
@@ -0,0 +1,91 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeePage;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import net.datafaker.Faker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Lookups and mutations on the mock server's {@link MockEmployeeService}. Mutations are measured as a create/delete
+ * pair so the store keeps its size across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MockEmployeeServiceBenchmark {
+
+    @Param({"50", "10000", "1000000"})
+    int size;
+
+    MockEmployeeService service;
+
+    UUID knownId;
+
+    CreateMockEmployeeInput createInput;
+
+    DeleteMockEmployeeInput deleteInput;
+
+    @Setup
+    public void setUp() {
+        List<MockEmployee> employees = BenchmarkData.mockEmployees(size);
+        knownId = employees.get(size / 2).getId();
+        Faker faker = new Faker(Locale.ENGLISH, new Random(BenchmarkData.SEED));
+        service = new MockEmployeeService(faker, new MockEmployeeStore(employees));
+
+        createInput = new CreateMockEmployeeInput();
+        createInput.setName("Benchmark Employee");
+        createInput.setSalary(100_000);
+        createInput.setAge(30);
+        createInput.setTitle("Engineer");
+        deleteInput = new DeleteMockEmployeeInput();
+        deleteInput.setName(createInput.getName());
+    }
+
+    @Benchmark
+    public Optional<MockEmployee> findById() {
+        return service.findById(knownId);
+    }
+
+    /** Served from the store's cached snapshot, since nothing changes between calls. */
+    @Benchmark
+    public List<MockEmployee> getMockEmployees() {
+        return service.getMockEmployees();
+    }
+
+    @Benchmark
+    public MockEmployeePage getFirstPage() {
+        return service.getMockEmployeePage(null, MockEmployeeService.MAX_PAGE_SIZE)
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public boolean createAndDelete() {
+        service.create(createInput);
+        return service.delete(deleteInput);
+    }
+
+    /** A mutation followed by a full list, which has to rebuild the snapshot. */
+    @Benchmark
+    public List<MockEmployee> createDeleteAndList() {
+        service.create(createInput);
+        service.delete(deleteInput);
+        return service.getMockEmployees();
+    }
+}
@@ -0,0 +1,126 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeData;
+import com.reliaquest.api.dto.UpstreamResponse;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Jackson (de)serialization of the payloads exchanged between the api and the mock server: the api's
+ * {@link Employee} / {@link EmployeeData} DTOs and the server's {@link Response} envelope around {@link MockEmployee},
+ * whose property names go through its {@code PrefixNamingStrategy}. The server only ever writes {@link MockEmployee},
+ * so it isn't read back here.
+ *
+ * <p>{@link #readEmployeeResponseAsTree()} is the api's old way of reading an upstream response, kept to compare its
+ * {@code gc.alloc.rate.norm} with the single pass of {@link #readEmployeeResponse()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    /** Employees per list payload; a single employee is always measured on its own as well. */
+    @Param({"50", "1000"})
+    int size;
+
+    ObjectMapper mapper;
+    ObjectWriter employeeWriter;
+    ObjectReader employeeReader;
+    ObjectWriter employeeDataWriter;
+    ObjectReader employeeDataReader;
+    ObjectReader employeeResponseReader;
+    ObjectWriter mockEmployeeWriter;
+    ObjectWriter mockEmployeesResponseWriter;
+
+    Employee employee;
+    EmployeeData employeeData;
+    MockEmployee mockEmployee;
+    Response<List<MockEmployee>> mockEmployeesResponse;
+
+    byte[] employeeJson;
+    byte[] employeeDataJson;
+    byte[] employeeResponseJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new ObjectMapper();
+        employeeWriter = mapper.writerFor(Employee.class);
+        employeeReader = mapper.readerFor(Employee.class);
+        employeeDataWriter = mapper.writerFor(EmployeeData.class);
+        employeeDataReader = mapper.readerFor(EmployeeData.class);
+        employeeResponseReader = mapper.readerFor(new TypeReference<UpstreamResponse<Employee>>() {});
+        mockEmployeeWriter = mapper.writerFor(MockEmployee.class);
+        mockEmployeesResponseWriter = mapper.writerFor(new TypeReference<Response<List<MockEmployee>>>() {});
+
+        List<MockEmployee> mockEmployees = BenchmarkData.mockEmployees(size);
+        mockEmployee = mockEmployees.get(0);
+        mockEmployeesResponse = Response.handledWith(mockEmployees);
+
+        // The api reads exactly what the server writes, so its inputs are the server's own output.
+        employeeDataJson = mockEmployeesResponseWriter.writeValueAsBytes(mockEmployeesResponse);
+        employeeData = employeeDataReader.readValue(employeeDataJson);
+        employee = employeeData.getData().get(0);
+        employeeJson = mockEmployeeWriter.writeValueAsBytes(mockEmployee);
+        employeeResponseJson = mapper.writeValueAsBytes(Response.handledWith(mockEmployee));
+    }
+
+    @Benchmark
+    public byte[] writeEmployee() throws IOException {
+        return employeeWriter.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public Employee readEmployee() throws IOException {
+        return employeeReader.readValue(employeeJson);
+    }
+
+    @Benchmark
+    public Employee readEmployeeResponse() throws IOException {
+        return employeeResponseReader
+                .<UpstreamResponse<Employee>>readValue(employeeResponseJson)
+                .getData();
+    }
+
+    @Benchmark
+    public Employee readEmployeeResponseAsTree() throws IOException {
+        String json = new String(employeeResponseJson, StandardCharsets.UTF_8);
+        return mapper.treeToValue(mapper.readTree(json).path("data"), Employee.class);
+    }
+
+    @Benchmark
+    public byte[] writeEmployeeData() throws IOException {
+        return employeeDataWriter.writeValueAsBytes(employeeData);
+    }
+
+    @Benchmark
+    public EmployeeData readEmployeeData() throws IOException {
+        return employeeDataReader.readValue(employeeDataJson);
+    }
+
+    @Benchmark
+    public byte[] writeMockEmployee() throws IOException {
+        return mockEmployeeWriter.writeValueAsBytes(mockEmployee);
+    }
+
+    @Benchmark
+    public byte[] writeMockEmployeesResponse() throws IOException {
+        return mockEmployeesResponseWriter.writeValueAsBytes(mockEmployeesResponse);
+    }
+}
@@ -0,0 +1,67 @@
+package com.reliaquest.benchmarks.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histogram and response counts for one endpoint. Latencies are recorded in microseconds from the time a
+ * request was scheduled to be sent, so a stalled server shows up as latency rather than as fewer requests.
+ */
+final class EndpointStats {
+
+    private final Histogram latency = new ConcurrentHistogram(3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void recordResponse(int status, long latencyNanos) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (status >= 200 && status < 300) {
+            ok.increment();
+        } else if (status == 404) {
+            notFound.increment();
+        } else if (status == 429) {
+            rateLimited.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    void recordFailure(long latencyNanos) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        errors.increment();
+    }
+
+    /** A request that wasn't sent because {@code load.max-in-flight} requests were already outstanding. */
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    Histogram latency() {
+        return latency.copy();
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    long notFound() {
+        return notFound.sum();
+    }
+
+    long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
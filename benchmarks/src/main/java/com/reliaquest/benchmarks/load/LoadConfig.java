@@ -0,0 +1,73 @@
+package com.reliaquest.benchmarks.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Load test settings, read from {@code load.*} system properties. The {@code loadTest} Gradle task forwards any
+ * {@code -Pload.*} project property, e.g. {@code -Pload.rate=100 -Pload.mix=search=50,byId=50}, and any
+ * {@code -Pmock.limiter.*} one, which configures the mock server's request limiters.
+ *
+ * @param duration how long to measure ({@code load.duration}, default 30s)
+ * @param warmup how long to drive load before measuring ({@code load.warmup}, default 5s)
+ * @param rate target requests per second across all endpoints ({@code load.rate}, default 50)
+ * @param mix relative weight per endpoint ({@code load.mix}, default 90% search/by-id and 10% create/delete)
+ * @param threadModes {@code platform}, {@code virtual} or {@code both} to run once per mode and compare them
+ *     ({@code load.threads}, default platform)
+ * @param employees employees the mock server starts with ({@code load.employees}, default 50)
+ * @param maxInFlight outstanding requests beyond which new ones are dropped ({@code load.max-in-flight}, default 500)
+ * @param seed seed for the request sequence and, unless {@code mock.limiter.seed} is set, the mock server's limiters
+ *     ({@code load.seed}, default 42)
+ * @param logLevel log level of both applications ({@code load.log-level}, default ERROR)
+ * @param output directory the per-endpoint percentile distributions are written to ({@code load.output})
+ */
+record LoadConfig(
+        Duration duration,
+        Duration warmup,
+        int rate,
+        Map<Operation, Integer> mix,
+        List<String> threadModes,
+        int employees,
+        int maxInFlight,
+        long seed,
+        String logLevel,
+        Path output) {
+
+    static LoadConfig fromSystemProperties() {
+        String threads = property("load.threads", "platform");
+        return new LoadConfig(
+                DurationStyle.detectAndParse(property("load.duration", "30s")),
+                DurationStyle.detectAndParse(property("load.warmup", "5s")),
+                Integer.parseInt(property("load.rate", "50")),
+                parseMix(property("load.mix", "search=45,byId=45,create=5,delete=5")),
+                "both".equals(threads) ? List.of("platform", "virtual") : List.of(threads),
+                Integer.parseInt(property("load.employees", "50")),
+                Integer.parseInt(property("load.max-in-flight", "500")),
+                Long.parseLong(property("load.seed", "42")),
+                property("load.log-level", "ERROR"),
+                Path.of(property("load.output", "build/results/load")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        Arrays.stream(mix.split(",")).map(String::trim).forEach(entry -> {
+            String[] keyAndWeight = entry.split("=");
+            weights.merge(
+                    Operation.fromKey(keyAndWeight[0].trim()), Integer.parseInt(keyAndWeight[1].trim()), Integer::sum);
+        });
+        weights.values().removeIf(weight -> weight <= 0);
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix must give at least one endpoint a positive weight");
+        }
+        return weights;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+}
@@ -0,0 +1,376 @@
+package com.reliaquest.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.ApiApplication;
+import com.reliaquest.api.dto.EmployeeRequest;
+import com.reliaquest.server.ServerApplication;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToLongFunction;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end load test of the api against the mock server. Both applications are started in this JVM on random ports,
+ * each with its own {@code application.yml}, and {@code EmployeControllerImpl} is driven over HTTP at a fixed request
+ * rate with a weighted mix of endpoints (see {@link LoadConfig}).
+ *
+ * <p>Requests are sent open-loop: each one is scheduled at a fixed interval and its latency is measured from that
+ * scheduled time, so a slow response doesn't hide the requests that would have queued up behind it. Deletes only
+ * target employees created by the run and turn into creates when there are none left, so searches and lookups keep
+ * hitting the employees the server started with.
+ *
+ * <p>With {@code load.threads=both} the whole run is repeated with Tomcat on platform and then on virtual threads and
+ * the two are compared.
+ */
+public final class LoadHarness {
+
+    private static final String EMPLOYEE_PATH = "/api/v1/employee";
+
+    private final LoadConfig config;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private LoadHarness(LoadConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        LoadHarness harness = new LoadHarness(config);
+
+        List<Result> results = new ArrayList<>();
+        for (String threadMode : config.threadModes()) {
+            results.add(harness.run(threadMode));
+        }
+        if (results.size() > 1) {
+            printComparison(results);
+        }
+    }
+
+    private Result run(String threadMode) throws Exception {
+        boolean virtualThreads = "virtual".equals(threadMode);
+        try (ConfigurableApplicationContext server = start(
+                        ServerApplication.class,
+                        virtualThreads,
+                        "--mock.employees.max=" + config.employees(),
+                        // Limits and injected delays and errors repeat with the request sequence.
+                        "--mock.limiter.seed=" + System.getProperty("mock.limiter.seed", "" + config.seed()));
+                ConfigurableApplicationContext api = start(
+                        ApiApplication.class,
+                        virtualThreads,
+                        "--upstream.base-url=http://localhost:" + port(server) + "/api/v1/",
+                        // Every run seeds a new mock server, so a snapshot saved by an earlier run would be stale.
+                        "--employee.cache.store.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:employee-snapshot")) {
+            URI baseUri = URI.create("http://localhost:" + port(api) + EMPLOYEE_PATH);
+            Workload workload = seed(baseUri);
+
+            System.out.printf(
+                    "%n== %s threads: %d employees, %d req/s, mix %s, warmup %s, measuring %s ==%n",
+                    threadMode, workload.ids().size(), config.rate(), config.mix(), config.warmup(), config.duration());
+            // One sequence across warmup and measurement, so created names don't repeat and collide.
+            SplittableRandom random = new SplittableRandom(config.seed());
+            drive(workload, config.warmup(), random);
+            Map<Operation, EndpointStats> stats = drive(workload, config.duration(), random);
+
+            Result result = new Result(threadMode, stats, config.duration());
+            result.print(System.out);
+            result.write(config.output().resolve(threadMode));
+            return result;
+        }
+    }
+
+    private ConfigurableApplicationContext start(Class<?> application, boolean virtualThreads, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.config.location=" + configLocation(application),
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=" + config.logLevel(),
+                "--logging.level.com.reliaquest=" + config.logLevel()));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(application).run(arguments.toArray(String[]::new));
+    }
+
+    /**
+     * Both applications ship an {@code application.yml} at the classpath root, so each is pointed at the one packaged
+     * next to its own classes.
+     */
+    private static String configLocation(Class<?> application) {
+        URL codeSource = application.getProtectionDomain().getCodeSource().getLocation();
+        Path path = Path.of(URI.create(codeSource.toString()));
+        if (Files.isRegularFile(path)) {
+            return "jar:" + path.toUri() + "!/application.yml";
+        }
+        // Classes and resources live in separate output directories when run from an IDE.
+        Path resources = path.resolve("application.yml");
+        if (!Files.exists(resources)) {
+            resources = Path.of(path.toString().replace("classes/java/main", "resources/main"), "application.yml");
+        }
+        return resources.toUri().toString();
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /** Reads the employees the server started with; search terms and ids are drawn from them. */
+    private Workload seed(URI baseUri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri).GET().build();
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 200) {
+                List<String> ids = new ArrayList<>();
+                List<String> searchTerms = new ArrayList<>();
+                for (JsonNode employee : mapper.readTree(response.body())) {
+                    ids.add(employee.path("id").asText());
+                    searchTerms.add(employee.path("employee_name").asText().split(" ")[0]);
+                }
+                return new Workload(baseUri, ids, searchTerms, new ConcurrentLinkedDeque<>());
+            }
+            if (attempt == 10) {
+                throw new IllegalStateException("Couldn't read employees from the api: HTTP " + response.statusCode());
+            }
+            Thread.sleep(Duration.ofSeconds(attempt));
+        }
+    }
+
+    private Map<Operation, EndpointStats> drive(Workload workload, Duration duration, SplittableRandom random)
+            throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        config.mix().keySet().forEach(operation -> stats.put(operation, new EndpointStats()));
+        stats.putIfAbsent(Operation.CREATE, new EndpointStats());
+
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+                long delay;
+                while ((delay = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                Operation operation = pick(random);
+                String deleteId = null;
+                if (operation == Operation.DELETE
+                        && (deleteId = workload.created().poll()) == null) {
+                    operation = Operation.CREATE;
+                }
+                EndpointStats endpoint = stats.get(operation);
+                if (!inFlight.tryAcquire()) {
+                    endpoint.recordDropped();
+                    continue;
+                }
+                HttpRequest request = request(workload, operation, deleteId, random);
+                Operation sent = operation;
+                long scheduledAt = scheduled;
+                executor.execute(() -> {
+                    try {
+                        send(workload, sent, request, scheduledAt, endpoint);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int total = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : config.mix().entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private HttpRequest request(Workload workload, Operation operation, String deleteId, SplittableRandom random) {
+        URI base = workload.baseUri();
+        return switch (operation) {
+            case ALL -> HttpRequest.newBuilder(base).GET().build();
+            case SEARCH -> HttpRequest.newBuilder(
+                            URI.create(base + "/search/" + encode(pickFrom(workload.searchTerms(), random))))
+                    .GET()
+                    .build();
+            case BY_ID -> HttpRequest.newBuilder(URI.create(base + "/" + pickFrom(workload.ids(), random)))
+                    .GET()
+                    .build();
+            case HIGHEST_SALARY -> HttpRequest.newBuilder(URI.create(base + "/highestSalary"))
+                    .GET()
+                    .build();
+            case TOP_TEN -> HttpRequest.newBuilder(URI.create(base + "/topTenHighestEarningEmployeeNames"))
+                    .GET()
+                    .build();
+            case CREATE -> HttpRequest.newBuilder(base)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(createBody(random)))
+                    .build();
+            case DELETE -> HttpRequest.newBuilder(URI.create(base + "/" + deleteId))
+                    .DELETE()
+                    .build();
+        };
+    }
+
+    private byte[] createBody(SplittableRandom random) {
+        EmployeeRequest employee = new EmployeeRequest();
+        employee.setName("Load Test " + Long.toString(random.nextLong() & Long.MAX_VALUE, 36));
+        employee.setSalary(30_000 + random.nextInt(470_000));
+        employee.setAge(16 + random.nextInt(60));
+        employee.setTitle("Load Tester");
+        try {
+            return mapper.writeValueAsBytes(employee);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void send(
+            Workload workload, Operation operation, HttpRequest request, long scheduledAt, EndpointStats endpoint) {
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            endpoint.recordResponse(response.statusCode(), System.nanoTime() - scheduledAt);
+            if (operation == Operation.CREATE && response.statusCode() == 201) {
+                workload.created()
+                        .add(mapper.readTree(response.body()).path("id").asText());
+            }
+        } catch (IOException e) {
+            endpoint.recordFailure(System.nanoTime() - scheduledAt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String pickFrom(List<String> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String pathSegment) {
+        return URLEncoder.encode(pathSegment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static void printComparison(List<Result> results) {
+        System.out.printf("%n== Comparison ==%n");
+        System.out.printf("%-10s %9s %9s %9s %9s %7s%n", "threads", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "429");
+        for (Result result : results) {
+            Histogram total = result.total();
+            System.out.printf(
+                    "%-10s %9.1f %9.2f %9.2f %9.2f %7d%n",
+                    result.threadMode(),
+                    result.perSecond(total.getTotalCount()),
+                    millis(total.getValueAtPercentile(50)),
+                    millis(total.getValueAtPercentile(99)),
+                    millis(total.getValueAtPercentile(99.9)),
+                    result.stats().values().stream()
+                            .mapToLong(EndpointStats::rateLimited)
+                            .sum());
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private record Workload(
+            URI baseUri, List<String> ids, List<String> searchTerms, ConcurrentLinkedDeque<String> created) {}
+
+    private record Result(String threadMode, Map<Operation, EndpointStats> stats, Duration duration) {
+
+        Histogram total() {
+            Histogram total = new Histogram(3);
+            stats.values().forEach(endpoint -> total.add(endpoint.latency()));
+            return total;
+        }
+
+        /** From nanoseconds, since durations under a second have no whole seconds to divide by. */
+        double perSecond(long count) {
+            return count * 1e9 / duration.toNanos();
+        }
+
+        void print(PrintStream out) {
+            out.printf(
+                    "%-14s %8s %8s %9s %9s %9s %9s %7s %6s %6s %6s %7s%n",
+                    "endpoint",
+                    "count",
+                    "req/s",
+                    "p50 ms",
+                    "p99 ms",
+                    "p99.9 ms",
+                    "max ms",
+                    "2xx",
+                    "404",
+                    "429",
+                    "errors",
+                    "dropped");
+            stats.forEach((operation, endpoint) -> printRow(out, operation.key(), endpoint.latency(), endpoint));
+            printRow(out, "total", total(), null);
+        }
+
+        private void printRow(PrintStream out, String name, Histogram latency, EndpointStats endpoint) {
+            out.printf(
+                    "%-14s %8d %8.1f %9.2f %9.2f %9.2f %9.2f %7d %6d %6d %6d %7d%n",
+                    name,
+                    latency.getTotalCount(),
+                    perSecond(latency.getTotalCount()),
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()),
+                    sum(endpoint, EndpointStats::ok),
+                    sum(endpoint, EndpointStats::notFound),
+                    sum(endpoint, EndpointStats::rateLimited),
+                    sum(endpoint, EndpointStats::errors),
+                    sum(endpoint, EndpointStats::dropped));
+        }
+
+        private long sum(EndpointStats endpoint, ToLongFunction<EndpointStats> counter) {
+            return endpoint != null
+                    ? counter.applyAsLong(endpoint)
+                    : stats.values().stream().mapToLong(counter).sum();
+        }
+
+        /** Writes each endpoint's percentile distribution in milliseconds, for plotting with HdrHistogram tools. */
+        void write(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+                try (PrintStream out = new PrintStream(
+                        Files.newOutputStream(directory.resolve(entry.getKey().key() + ".hgrm")))) {
+                    entry.getValue().latency().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+            System.out.println("Percentile distributions written to " + directory.toAbsolutePath());
+        }
+    }
+}
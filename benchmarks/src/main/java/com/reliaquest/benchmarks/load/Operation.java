@@ -0,0 +1,32 @@
+package com.reliaquest.benchmarks.load;
+
+import java.util.Arrays;
+
+/** The {@code EmployeControllerImpl} endpoints a request mix can draw from, keyed by their name in {@code load.mix}. */
+enum Operation {
+    ALL("all"),
+    SEARCH("search"),
+    BY_ID("byId"),
+    HIGHEST_SALARY("highestSalary"),
+    TOP_TEN("topTen"),
+    CREATE("create"),
+    DELETE("delete");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + key + "', expected one of "
+                        + Arrays.stream(values()).map(Operation::key).toList()));
+    }
+}
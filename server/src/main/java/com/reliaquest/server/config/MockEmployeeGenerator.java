@@ -0,0 +1,79 @@
+package com.reliaquest.server.config;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import net.datafaker.Faker;
+
+/**
+ * Generates employee datasets from a seed, optionally in parallel. The range is cut into fixed-size chunks and every
+ * chunk draws from its own {@link Faker} seeded with {@code seed + chunk}, so the same seed and chunk size always
+ * produce the same employees (ids included), sequentially or on however many cores. Chunks are streamed into the store
+ * in order as they complete, without materialising the whole dataset as a list first.
+ */
+@Slf4j
+class MockEmployeeGenerator {
+
+    private final long seed;
+    private final int chunkSize;
+    private final Locale locale;
+
+    MockEmployeeGenerator(long seed, int chunkSize, Locale locale) {
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.locale = locale;
+    }
+
+    MockEmployeeStore generate(int maxEmployees, int maxChanges, boolean parallel) {
+        final var started = System.nanoTime();
+        final var store = new MockEmployeeStore(maxEmployees, maxChanges);
+        final var chunks = (maxEmployees + chunkSize - 1) / chunkSize;
+
+        final var range = IntStream.range(0, chunks);
+        (parallel ? range.parallel() : range)
+                .mapToObj(chunk -> generateChunk(chunk, Math.min(chunkSize, maxEmployees - chunk * chunkSize)))
+                .forEachOrdered(employees -> employees.forEach(store::load));
+
+        final var elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info(
+                "Generated {} employees with seed {} in {} ms ({} employees/s)",
+                store.size(),
+                seed,
+                elapsedMillis,
+                store.size() * 1000L / elapsedMillis);
+        return store;
+    }
+
+    private List<MockEmployee> generateChunk(int chunk, int size) {
+        final var random = new Random(seed + chunk);
+        final var faker = new Faker(locale, random);
+        final var employees = new ArrayList<MockEmployee>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(MockEmployee.builder()
+                    .id(randomUuid(random))
+                    .name(faker.name().fullName())
+                    .salary(faker.number().numberBetween(30000, 500000))
+                    .age(faker.number().numberBetween(16, 70))
+                    .title(faker.job().title())
+                    .email(ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                            faker.twitter().userName().toLowerCase()))
+                    .build());
+        }
+        return employees;
+    }
+
+    /*
+     * Same layout as UUID.randomUUID() (version 4, IETF variant), but drawn from the seeded generator.
+     */
+    private static UUID randomUuid(Random random) {
+        final var mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        final var leastSigBits = (random.nextLong() & ~(0xC000000000000000L)) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,90 @@
+package com.reliaquest.server.config;
+
+import com.reliaquest.server.web.CooldownLimiter;
+import com.reliaquest.server.web.ErrorInjector;
+import com.reliaquest.server.web.FixedWindowLimiter;
+import com.reliaquest.server.web.LatencyInjector;
+import com.reliaquest.server.web.RandomRequestLimitInterceptor;
+import com.reliaquest.server.web.RequestLimiter;
+import com.reliaquest.server.web.TokenBucketLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * mock.limiter.profiles picks the limiters requests pass through, in order; see Profile. Each profile draws from its
+ * own generator seeded from mock.limiter.seed, so with a seed the random profile's limits and the injected delays and
+ * errors repeat from run to run. Without one a seed is picked and logged.
+ */
+@Slf4j
+@Configuration
+public class RequestLimiterConfiguration {
+
+    @Bean
+    public RandomRequestLimitInterceptor requestLimitInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${mock.limiter.profiles:random}") List<Profile> profiles,
+            @Value("${mock.limiter.seed:#{null}}") Long seed,
+            @Value("${mock.limiter.window.limit:10}") int windowLimit,
+            @Value("${mock.limiter.window.length:1s}") Duration windowLength,
+            @Value("${mock.limiter.bucket.rate:10}") double bucketRate,
+            @Value("${mock.limiter.bucket.burst:20}") int bucketBurst,
+            @Value("${mock.limiter.bucket.stripes:64}") int bucketStripes,
+            @Value("${mock.limiter.bucket.client-header:X-Client-Id}") String clientHeader,
+            @Value("${mock.limiter.latency.distribution:log-normal}") LatencyInjector.Distribution distribution,
+            @Value("${mock.limiter.latency.min:0ms}") Duration latencyMin,
+            @Value("${mock.limiter.latency.mean:50ms}") Duration latencyMean,
+            @Value("${mock.limiter.latency.max:1s}") Duration latencyMax,
+            @Value("${mock.limiter.latency.sigma:1.0}") double latencySigma,
+            @Value("${mock.limiter.errors.rate:0.05}") double errorRate,
+            @Value("${mock.limiter.errors.status:503}") int errorStatus) {
+        final var effectiveSeed =
+                seed != null ? seed : RandomGenerator.getDefault().nextLong();
+        final var seeds = new SplittableRandom(effectiveSeed);
+        final var limiters = new ArrayList<RequestLimiter>();
+        for (Profile profile : profiles) {
+            final var profileSeed = seeds.nextLong();
+            switch (profile) {
+                case RANDOM -> {
+                    final var random = new SplittableRandom(profileSeed);
+                    limiters.add(
+                            new CooldownLimiter(random.nextInt(5, 10), Duration.ofSeconds(random.nextInt(30, 90))));
+                }
+                case FIXED_WINDOW -> limiters.add(new FixedWindowLimiter(windowLimit, windowLength));
+                case TOKEN_BUCKET -> limiters.add(new TokenBucketLimiter(bucketRate, bucketBurst, 1, null));
+                case PER_CLIENT -> limiters.add(
+                        new TokenBucketLimiter(bucketRate, bucketBurst, bucketStripes, clientHeader));
+                case LATENCY -> limiters.add(new LatencyInjector(
+                        distribution, latencyMin, latencyMean, latencyMax, latencySigma, profileSeed, meterRegistry));
+                case ERRORS -> limiters.add(new ErrorInjector(errorRate, errorStatus, profileSeed));
+                case OFF -> {}
+            }
+        }
+        log.info("Request limiters {} with seed {}", limiters, effectiveSeed);
+        return new RandomRequestLimitInterceptor(meterRegistry, limiters);
+    }
+
+    public enum Profile {
+        /** The original limit: 5 to 9 requests, then 429s for 30 to 89 seconds after the last, drawn from the seed. */
+        RANDOM,
+        /** {@code window.limit} requests per {@code window.length}. */
+        FIXED_WINDOW,
+        /** One bucket of {@code bucket.burst} tokens refilled at {@code bucket.rate} per second. */
+        TOKEN_BUCKET,
+        /** As {@link #TOKEN_BUCKET}, with a bucket per client hashed into {@code bucket.stripes}. */
+        PER_CLIENT,
+        /** Delays drawn from {@code latency.distribution}. */
+        LATENCY,
+        /** {@code errors.rate} of requests answered with {@code errors.status}. */
+        ERRORS,
+        /** No limit; only meaningful alone. */
+        OFF
+    }
+}
@@ -1,18 +1,12 @@
 package com.reliaquest.server.config;
 
-import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeStore;
 import com.reliaquest.server.web.RandomRequestLimitInterceptor;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.random.RandomGenerator;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
-import net.datafaker.transformations.Field;
-import net.datafaker.transformations.JavaObjectTransformer;
-import net.datafaker.transformations.Schema;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,39 +15,43 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Slf4j
 @Configuration
+@RequiredArgsConstructor
 public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
 
+    private final RandomRequestLimitInterceptor requestLimitInterceptor;
+
     @Bean
     public Faker faker() {
         return new Faker(Locale.getDefault());
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * The store is modifiable by design for CRUD operations, and safe to read while it is being modified.
+     * Employees are drawn from mock.employees.seed, or from a seed picked and logged at startup, so any dataset can be
+     * generated again. Set mock.employees.parallel for capacity-test sized datasets; the same seed gives the same
+     * employees either way. mock.changes.max bounds the change log that clients catch up from.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
-        final var transformer = new JavaObjectTransformer();
-        final var schema = Schema.of(
-                Field.field("id", UUID::randomUUID),
-                Field.field("name", () -> faker.name().fullName()),
-                Field.field("salary", () -> faker.number().numberBetween(30000, 500000)),
-                Field.field("age", () -> faker.number().numberBetween(16, 70)),
-                Field.field("title", () -> faker.job().title()),
-                Field.field(
-                        "email",
-                        () -> EMAIL_TEMPLATE.formatted(
-                                faker.twitter().userName().toLowerCase())));
-        return IntStream.rangeClosed(1, maxEmployees)
-                .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema))
-                .peek(mockEmployee -> log.debug("Created employee: {}", mockEmployee))
-                .collect(Collectors.toCollection(ArrayList::new));
+    public MockEmployeeStore mockEmployees(
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.parallel:false}") boolean parallel,
+            @Value("${mock.employees.seed:#{null}}") Long seed,
+            @Value("${mock.employees.chunk-size:10000}") int chunkSize,
+            @Value("${mock.changes.max:" + MockEmployeeStore.DEFAULT_MAX_CHANGES + "}") int maxChanges) {
+        final var store = new MockEmployeeGenerator(
+                        seed != null ? seed : RandomGenerator.getDefault().nextLong(), chunkSize, Locale.getDefault())
+                .generate(maxEmployees, maxChanges, parallel);
+        if (log.isDebugEnabled()) {
+            store.snapshot().forEach(mockEmployee -> log.debug("Created employee: {}", mockEmployee));
+        }
+        return store;
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RandomRequestLimitInterceptor());
+        // The event stream is one long-lived request per subscriber rather than a stream of calls, so it isn't limited.
+        registry.addInterceptor(requestLimitInterceptor).excludePathPatterns("/api/v1/employee/events");
     }
 }
@@ -1,41 +1,147 @@
 package com.reliaquest.server.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.server.model.BulkCreateMockEmployeeInput;
+import com.reliaquest.server.model.BulkDeleteMockEmployeeInput;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.model.MockEmployeePage;
 import com.reliaquest.server.model.Response;
+import com.reliaquest.server.service.MockEmployeeEventStream;
 import com.reliaquest.server.service.MockEmployeeService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/employee")
 @RequiredArgsConstructor
 public class MockEmployeeController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final MockEmployeeService mockEmployeeService;
+    private final MockEmployeeEventStream mockEmployeeEventStream;
+    private final ObjectMapper objectMapper;
 
+    /*
+     * The list and single-employee reads carry an ETag from the store version, so clients revalidating with
+     * If-None-Match get an empty 304 until an employee is created or deleted.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<Response<List<MockEmployee>>> getEmployees(WebRequest request) {
+        final var etag = mockEmployeeService.getVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(Response.handledWith(mockEmployeeService.getMockEmployees()));
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<Response<MockEmployeePage>> getEmployeePage(
+            @RequestParam("limit") int limit, @RequestParam(value = "cursor", required = false) String cursor) {
+        return mockEmployeeService
+                .getMockEmployeePage(cursor, limit)
+                .map(page -> ResponseEntity.ok(Response.handledWith(page)))
+                .orElseGet(() -> ResponseEntity.badRequest().body(Response.error("Invalid cursor: " + cursor)));
+    }
+
+    /*
+     * Several employees by id in one request, in the order asked for. Ids that aren't known are left out.
+     */
+    @GetMapping(params = "ids")
+    public Response<List<MockEmployee>> getEmployeesById(@RequestParam("ids") List<String> ids) {
+        return Response.handledWith(mockEmployeeService.findAllById(ids));
+    }
+
+    /*
+     * Newline-delimited JSON, one employee per line, written straight to the response as the snapshot is walked so
+     * that clients can start parsing before the last record is serialised.
+     */
+    @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public void streamEmployees(WebRequest request, HttpServletResponse response) throws IOException {
+        final var etag = mockEmployeeService.getVersionTag();
+        if (request.checkNotModified(etag)) {
+            return;
+        }
+        final var employees = mockEmployeeService.getMockEmployees();
+        final var writer =
+                objectMapper.writerFor(MockEmployee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            for (MockEmployee employee : employees) {
+                writer.writeValue(generator, employee);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /*
+     * Replays creates and deletes after a version taken from an earlier ETag ("<epoch>-<version>"). 410 Gone means
+     * the log no longer reaches back that far, or the server restarted, and the full list has to be read again.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Response<MockEmployeeChanges>> getChanges(
+            @RequestParam("since") long since, @RequestParam(value = "epoch", required = false) String epoch) {
+        return mockEmployeeService
+                .getChangesSince(epoch, since)
+                .map(changes -> ResponseEntity.ok(Response.handledWith(changes)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE)
+                        .body(Response.error("Changes since version " + since + " are no longer available")));
+    }
+
+    /*
+     * Server-sent events for every create and delete, exempt from the request limiter. Resume after a disconnect with
+     * the Last-Event-ID header (or since/epoch, as for /changes); see MockEmployeeEventStream for the events.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestParam(value = "epoch", required = false) String epoch) {
+        if (lastEventId != null) {
+            final var separator = lastEventId.lastIndexOf('-');
+            epoch = lastEventId.substring(0, Math.max(0, separator));
+            try {
+                since = Long.valueOf(lastEventId.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                since = -1L; // Not one of our ids: answered with a reset.
+            }
+        }
+        return mockEmployeeEventStream.subscribe(epoch, since);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Response<MockEmployee>> getEmployee(@PathVariable("id") UUID uuid) {
+    public ResponseEntity<Response<MockEmployee>> getEmployee(@PathVariable("id") UUID uuid, WebRequest request) {
+        final var etag = mockEmployeeService.getVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         return mockEmployeeService
                 .findById(uuid)
-                .map(employee -> ResponseEntity.ok(Response.handledWith(employee)))
+                .map(employee -> ResponseEntity.ok().eTag(etag).body(Response.handledWith(employee)))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Response.handled()));
     }
 
@@ -44,6 +150,19 @@ public class MockEmployeeController {
         return Response.handledWith(mockEmployeeService.create(input));
     }
 
+    /*
+     * Bulk variants of create and delete: up to 1000 employees in one request, so one pass of the request limiter.
+     */
+    @PostMapping("/bulk")
+    public Response<List<MockEmployee>> createEmployees(@Valid @RequestBody BulkCreateMockEmployeeInput input) {
+        return Response.handledWith(mockEmployeeService.createAll(input.getEmployees()));
+    }
+
+    @DeleteMapping("/bulk")
+    public Response<List<Boolean>> deleteEmployees(@Valid @RequestBody BulkDeleteMockEmployeeInput input) {
+        return Response.handledWith(mockEmployeeService.deleteAll(input.getNames()));
+    }
+
     @DeleteMapping()
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
@@ -0,0 +1,10 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/**
+ * @param epoch store instance the versions belong to
+ * @param version store version after the last change, to pass as {@code since} next time
+ * @param changes every change after the requested version, oldest first
+ */
+public record MockEmployeeChanges(String epoch, long version, List<MockEmployeeChange> changes) {}
@@ -0,0 +1,120 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployeeChange;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the store's change log to server-sent event subscribers. Each subscriber gets a bounded queue, filled by the
+ * store's listener callback, and a virtual thread that drains it into the response and writes a heartbeat comment
+ * whenever nothing changed for {@code mock.events.heartbeat}. A subscriber that falls {@value #MAX_QUEUED_CHANGES}
+ * changes behind, or whose connection fails, is dropped and has to resume from its last event id.
+ *
+ * <p>Events are {@code ready} once the subscription is live, then {@code created} / {@code deleted} with the
+ * {@link MockEmployeeChange} as data. Their ids are {@code <epoch>-<version>}, the same as the list's ETag. If the
+ * requested version can't be resumed from, the only event is {@code reset} and the subscriber has to read the full
+ * list again.
+ */
+@Slf4j
+@Service
+public class MockEmployeeEventStream {
+
+    public static final int MAX_QUEUED_CHANGES = 10_000;
+
+    private final MockEmployeeStore mockEmployees;
+    private final Duration heartbeat;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public MockEmployeeEventStream(
+            MockEmployeeStore mockEmployees,
+            MeterRegistry meterRegistry,
+            @Value("${mock.events.heartbeat:5s}") Duration heartbeat) {
+        this.mockEmployees = mockEmployees;
+        this.heartbeat = heartbeat;
+        Gauge.builder("mock.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Open employee event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param epoch epoch of {@code since}, or {@code null} to skip the check
+     * @param since version to resume after, or {@code null} to start from the current one
+     */
+    public SseEmitter subscribe(String epoch, Long since) {
+        // No timeout: the connection stays open until either side closes it or a heartbeat fails to write.
+        final var emitter = new SseEmitter(0L);
+        final var queue = new LinkedBlockingQueue<MockEmployeeChange>(MAX_QUEUED_CHANGES);
+        // The listener runs under the store's write lock, so it only flags an overflow for the drain thread to act on.
+        final var overflowed = new AtomicBoolean();
+        final Consumer<MockEmployeeChange> listener = change -> {
+            if (!queue.offer(change)) {
+                overflowed.set(true);
+            }
+        };
+
+        final long from = since != null ? since : mockEmployees.version();
+        if ((epoch != null && !epoch.equals(mockEmployees.epoch())) || !mockEmployees.subscribe(from, listener)) {
+            send(
+                    emitter,
+                    SseEmitter.event()
+                            .name("reset")
+                            .data("Changes since " + (epoch == null ? "" : epoch + "-") + from
+                                    + " are no longer available"));
+            emitter.complete();
+            return emitter;
+        }
+
+        subscribers.incrementAndGet();
+        Thread.ofVirtual().name("employee-events").start(() -> {
+            try {
+                send(emitter, SseEmitter.event().name("ready").id(eventId(from)).data(from));
+                while (!overflowed.get()) {
+                    final var change = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (change == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .name(change.type() == MockEmployeeChange.Type.CREATED ? "created" : "deleted")
+                                .id(eventId(change.version()))
+                                .data(change));
+                    }
+                }
+                log.debug("Employee event subscriber fell too far behind, dropping it");
+            } catch (IOException | IllegalStateException | InterruptedException e) {
+                log.debug("Employee event subscriber disconnected: {}", e.getMessage());
+            } finally {
+                mockEmployees.unsubscribe(listener);
+                subscribers.decrementAndGet();
+                if (overflowed.get()) {
+                    emitter.completeWithError(new IllegalStateException("Subscriber fell too far behind"));
+                } else {
+                    emitter.complete();
+                }
+            }
+        });
+        return emitter;
+    }
+
+    private String eventId(long version) {
+        return mockEmployees.epoch() + "-" + version;
+    }
+
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -4,11 +4,12 @@ import com.reliaquest.server.config.ServerConfiguration;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.model.MockEmployeePage;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,16 +21,68 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class MockEmployeeService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final MockEmployeeStore mockEmployees;
+
+    /**
+     * Opaque tag that changes only when an employee is created or deleted. Read it before the data it describes, so a
+     * concurrent write can only make the tag older than the data, never newer.
+     */
+    public String getVersionTag() {
+        return mockEmployees.epoch() + "-" + mockEmployees.version();
+    }
+
+    public List<MockEmployee> getMockEmployees() {
+        return mockEmployees.snapshot();
+    }
+
+    /**
+     * @param epoch epoch the caller's version belongs to, or {@code null} to skip the check
+     * @return the changes after {@code since}, or empty if the caller has to read the full list instead
+     */
+    public Optional<MockEmployeeChanges> getChangesSince(String epoch, long since) {
+        if (epoch != null && !epoch.equals(mockEmployees.epoch())) {
+            return Optional.empty();
+        }
+        return mockEmployees.changesSince(since);
+    }
+
+    /**
+     * @param cursor {@code next_cursor} of the previous page, or {@code null} for the first
+     * @return the page, or empty if {@code cursor} isn't one this service handed out
+     */
+    public Optional<MockEmployeePage> getMockEmployeePage(String cursor, int limit) {
+        final Long after;
+        try {
+            after = cursor == null ? null : Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        final var page = mockEmployees.page(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return Optional.of(new MockEmployeePage(
+                page.employees(), page.next() == null ? null : page.next().toString()));
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return mockEmployees.findById(uuid);
+    }
+
+    /**
+     * @return the employees with the given ids, in that order, skipping ids that are unknown or not UUIDs
+     */
+    public List<MockEmployee> findAllById(@NonNull List<String> ids) {
+        final var employees = new ArrayList<MockEmployee>(ids.size());
+        for (String id : ids) {
+            try {
+                mockEmployees.findById(UUID.fromString(id.strip())).ifPresent(employees::add);
+            } catch (IllegalArgumentException e) {
+                log.debug("Skipping invalid id: {}", id);
+            }
+        }
+        return employees;
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
@@ -42,17 +95,35 @@ public class MockEmployeeService {
         return mockEmployee;
     }
 
-    public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
-        if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
-            return true;
-        }
+    public List<MockEmployee> createAll(@NonNull List<CreateMockEmployeeInput> inputs) {
+        final var created = inputs.stream()
+                .map(input -> MockEmployee.from(
+                        ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                                faker.twitter().userName().toLowerCase()),
+                        input))
+                .toList();
+        mockEmployees.addAll(created);
+        log.debug("Added {} employees", created.size());
+        return created;
+    }
 
-        return false;
+    /**
+     * @return for each name in order, whether an employee was deleted
+     */
+    public List<Boolean> deleteAll(@NonNull List<String> names) {
+        final var deleted = mockEmployees.removeFirstByNames(names).stream()
+                .map(Optional::isPresent)
+                .toList();
+        log.debug(
+                "Removed {} of {} employees",
+                deleted.stream().filter(Boolean::booleanValue).count(),
+                names.size());
+        return deleted;
+    }
+
+    public boolean delete(@NonNull DeleteMockEmployeeInput input) {
+        final var mockEmployee = mockEmployees.removeFirstByName(input.getName());
+        mockEmployee.ifPresent(employee -> log.debug("Removed employee: {}", employee));
+        return mockEmployee.isPresent();
     }
 }
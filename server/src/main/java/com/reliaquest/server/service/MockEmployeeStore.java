@@ -0,0 +1,338 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import lombok.NonNull;
+
+/**
+ * Thread-safe, indexed replacement for the plain employee list. Writers are serialized by a lock and keep a UUID map,
+ * a case-insensitive name index and an array in insertion order in step. Readers never take the lock: id lookups hit
+ * the concurrent map, and {@link #snapshot()} returns an immutable list that is rebuilt at most once per version.
+ *
+ * <p>Every write also appends to a bounded change log keyed by the version it produced, so clients that know the
+ * version they last saw can catch up with {@link #changesSince(long)} instead of reading the whole list, and is
+ * pushed to listeners registered with {@link #subscribe(long, Consumer)}. The employees a store starts with are loaded
+ * without either, see {@link #load(MockEmployee)}.
+ *
+ * <p>Sized for tens of millions of employees: besides the UUID map entry, each one costs a slot in the sequence array
+ * and a name index entry pointing at that slot. Names that are taken more than once, which are rare, keep their later
+ * sequences in a separate overflow map instead of giving every name its own queue.
+ */
+public final class MockEmployeeStore {
+
+    public static final int DEFAULT_MAX_CHANGES = 1000;
+
+    /** Largest array most JVMs allocate. Removed employees keep their sequence, so this bounds adds, not size. */
+    private static final int MAX_SEQUENCES = Integer.MAX_VALUE - 8;
+
+    private final String epoch =
+            Long.toUnsignedString(RandomGenerator.getDefault().nextLong(), 36);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<UUID, MockEmployee> byId;
+    /** Sequence of the earliest added employee with each case-folded name. */
+    private final Map<String, Integer> firstByName;
+    /** Sequences of the later employees whose name was already taken, in insertion order. */
+    private final Map<String, Deque<Integer>> laterByName = new HashMap<>();
+
+    private final ConcurrentSkipListMap<Long, MockEmployeeChange> changes = new ConcurrentSkipListMap<>();
+    private final int maxChanges;
+    private final List<Consumer<MockEmployeeChange>> listeners = new CopyOnWriteArrayList<>();
+
+    /** Employees by insertion sequence, {@code null} once removed. Only the first {@link #sequences} slots are used. */
+    private volatile MockEmployee[] bySequence;
+    /** Written after the slot it makes visible, so readers that load it before the array never see a missing one. */
+    private volatile int sequences;
+
+    private volatile long version;
+    private volatile Snapshot snapshot = new Snapshot(-1, List.of());
+
+    /**
+     * @param maxChanges how many of the latest changes {@link #changesSince(long)} can replay
+     */
+    public MockEmployeeStore(int expectedSize, int maxChanges) {
+        if (maxChanges < 1) {
+            throw new IllegalArgumentException("maxChanges must be positive");
+        }
+        this.byId = new ConcurrentHashMap<>(expectedSize);
+        this.bySequence = new MockEmployee[expectedSize];
+        this.firstByName = new HashMap<>(expectedSize * 4 / 3 + 1);
+        this.maxChanges = maxChanges;
+    }
+
+    public MockEmployeeStore(@NonNull Collection<MockEmployee> employees, int maxChanges) {
+        this(employees.size(), maxChanges);
+        employees.forEach(this::load);
+    }
+
+    public MockEmployeeStore(@NonNull Collection<MockEmployee> employees) {
+        this(employees, DEFAULT_MAX_CHANGES);
+    }
+
+    public Optional<MockEmployee> findById(@NonNull UUID uuid) {
+        return Optional.ofNullable(byId.get(uuid));
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Incremented by every add and remove, so two reads with the same {@link #epoch()} and version saw the same data.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Random per store instance. Versions restart when the server does, so they are only comparable within an epoch.
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * @return every employee in insertion order, as an immutable list that later writes don't affect
+     */
+    public List<MockEmployee> snapshot() {
+        Snapshot current = snapshot;
+        long expectedVersion = version;
+        if (current.version() == expectedVersion) {
+            return current.employees();
+        }
+        int count = sequences;
+        MockEmployee[] slots = bySequence;
+        List<MockEmployee> employees = new ArrayList<>(size());
+        for (int sequence = 0; sequence < count; sequence++) {
+            if (slots[sequence] != null) {
+                employees.add(slots[sequence]);
+            }
+        }
+        employees = Collections.unmodifiableList(employees);
+        if (version == expectedVersion) {
+            snapshot = new Snapshot(expectedVersion, employees);
+        }
+        return employees;
+    }
+
+    /**
+     * @return the changes after {@code since} up to the current version, or empty if some of them have already been
+     *     dropped from the log (or {@code since} is ahead of this store) and the caller has to read the full list
+     */
+    public Optional<MockEmployeeChanges> changesSince(long since) {
+        long current = version;
+        if (since < 0 || since > current) {
+            return Optional.empty();
+        }
+        // Entries are logged before the version is published, so the range is complete unless it was trimmed.
+        List<MockEmployeeChange> tail =
+                List.copyOf(changes.subMap(since, false, current, true).values());
+        return tail.size() == current - since
+                ? Optional.of(new MockEmployeeChanges(epoch, current, tail))
+                : Optional.empty();
+    }
+
+    /**
+     * Replays the changes after {@code since} to {@code listener} and then registers it for every later change, with
+     * writes held off in between so that nothing is missed or delivered twice. Listeners are called with the write
+     * lock held, so they have to hand changes off rather than do I/O.
+     *
+     * @return {@code false}, without registering the listener, if the changes since that version are no longer
+     *     available (see {@link #changesSince(long)})
+     */
+    public boolean subscribe(long since, @NonNull Consumer<MockEmployeeChange> listener) {
+        writeLock.lock();
+        try {
+            Optional<MockEmployeeChanges> missed = changesSince(since);
+            if (missed.isEmpty()) {
+                return false;
+            }
+            missed.get().changes().forEach(listener);
+            listeners.add(listener);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void unsubscribe(Consumer<MockEmployeeChange> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Cursor pagination in insertion order. Cursors are insertion sequence numbers, so pages stay stable while
+     * employees are added or removed concurrently.
+     *
+     * @param after sequence of the last employee already returned, or {@code null} to start from the beginning
+     */
+    public Page page(Long after, int limit) {
+        final var count = sequences;
+        final var slots = bySequence;
+        final var employees = new ArrayList<MockEmployee>(Math.min(limit, size()));
+        Long last = null;
+        for (long sequence = after == null ? 0 : Math.max(0, after + 1); sequence < count; sequence++) {
+            final var employee = slots[(int) sequence];
+            if (employee == null) {
+                continue;
+            }
+            if (employees.size() == limit) {
+                return new Page(employees, last);
+            }
+            employees.add(employee);
+            last = sequence;
+        }
+        return new Page(employees, null);
+    }
+
+    public void add(@NonNull MockEmployee employee) {
+        writeLock.lock();
+        try {
+            insert(employee);
+            publish(MockEmployeeChange.Type.CREATED, employee);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds an employee the store starts with: unlike {@link #add(MockEmployee)} it neither bumps the version nor logs
+     * or pushes a change, so generating a large dataset doesn't fill the change log with entries nobody can use. Only
+     * for filling a store before it is shared; readers see loaded employees as part of version 0.
+     *
+     * @throws IllegalStateException after the first {@link #add} or remove
+     */
+    public void load(@NonNull MockEmployee employee) {
+        writeLock.lock();
+        try {
+            if (version != 0) {
+                throw new IllegalStateException("Employees can only be loaded before the first write");
+            }
+            insert(employee);
+            snapshot = new Snapshot(-1, List.of());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds every employee in one write, so they get consecutive versions with no other write in between.
+     */
+    public void addAll(@NonNull Collection<MockEmployee> employees) {
+        writeLock.lock();
+        try {
+            employees.forEach(this::add);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * {@link #removeFirstByName(String)} for each name in order, in one write.
+     *
+     * @return what was removed for each name, in the same order
+     */
+    public List<Optional<MockEmployee>> removeFirstByNames(@NonNull List<String> names) {
+        writeLock.lock();
+        try {
+            return names.stream().map(this::removeFirstByName).toList();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the earliest added employee whose name matches ignoring case.
+     */
+    public Optional<MockEmployee> removeFirstByName(@NonNull String name) {
+        writeLock.lock();
+        try {
+            String key = nameKey(name);
+            Integer sequence = firstByName.get(key);
+            if (sequence == null) {
+                return Optional.empty();
+            }
+            Deque<Integer> later = laterByName.get(key);
+            if (later == null) {
+                firstByName.remove(key);
+            } else {
+                firstByName.put(key, later.pollFirst());
+                if (later.isEmpty()) {
+                    laterByName.remove(key);
+                }
+            }
+            // Readers load the version before the slots, so they see the slot cleared once the delete is published.
+            MockEmployee removed = bySequence[sequence];
+            bySequence[sequence] = null;
+            byId.remove(removed.getId());
+            publish(MockEmployeeChange.Type.DELETED, removed);
+            return Optional.of(removed);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Indexes a new employee. Must be called with the write lock held. */
+    private void insert(MockEmployee employee) {
+        Objects.requireNonNull(employee.getId(), "id");
+        int sequence = sequences;
+        MockEmployee[] slots = bySequence;
+        if (sequence == slots.length) {
+            if (sequence == MAX_SEQUENCES) {
+                throw new IllegalStateException("No sequences left");
+            }
+            slots = Arrays.copyOf(slots, (int) Math.min(MAX_SEQUENCES, Math.max(16, sequence * 3L / 2)));
+        }
+        if (byId.putIfAbsent(employee.getId(), employee) != null) {
+            throw new IllegalArgumentException("Employee " + employee.getId() + " already exists");
+        }
+        slots[sequence] = employee;
+        bySequence = slots;
+        sequences = sequence + 1;
+        if (employee.getName() != null) {
+            String key = nameKey(employee.getName());
+            if (firstByName.putIfAbsent(key, sequence) != null) {
+                laterByName.computeIfAbsent(key, ignored -> new ArrayDeque<>()).addLast(sequence);
+            }
+        }
+    }
+
+    /** Logs a change, bumps the version to it and notifies listeners. Must be called with the write lock held. */
+    private void publish(MockEmployeeChange.Type type, MockEmployee employee) {
+        long next = version + 1;
+        MockEmployeeChange change = new MockEmployeeChange(next, type, employee);
+        changes.put(next, change);
+        changes.remove(next - maxChanges);
+        version = next;
+        listeners.forEach(listener -> listener.accept(change));
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param next cursor for the following page, or {@code null} when this is the last one
+     */
+    public record Page(List<MockEmployee> employees, Long next) {}
+
+    private record Snapshot(long version, List<MockEmployee> employees) {}
+}
@@ -0,0 +1,61 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The mock server's original limit: {@code limit} requests go through, then every request is rejected until
+ * {@code backoff} has passed since the last one allowed, and the count starts over.
+ *
+ * <p>The count and the time of the last allowed request share one {@link AtomicLong}, so checking and updating them
+ * is a single compare-and-set and concurrent requests can't slip past the limit together.
+ */
+public class CooldownLimiter implements RequestLimiter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int limit;
+    private final long backoffMillis;
+    private final long origin = System.nanoTime();
+    /** Milliseconds since {@link #origin} of the last allowed request, above the count. */
+    private final AtomicLong state = new AtomicLong();
+
+    public CooldownLimiter(int limit, Duration backoff) {
+        if (limit < 1 || limit > COUNT_MASK) {
+            throw new IllegalArgumentException("limit must be between 1 and " + COUNT_MASK);
+        }
+        this.limit = limit;
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    @Override
+    public Rejection check(HttpServletRequest request) {
+        final var now = (System.nanoTime() - origin) / 1_000_000;
+        while (true) {
+            final var current = state.get();
+            final var count = current & COUNT_MASK;
+            final var lastAllowed = current >>> COUNT_BITS;
+            final long next;
+            if (count >= limit) {
+                final var until = lastAllowed + backoffMillis;
+                if (now < until) {
+                    return new Rejection(HttpStatus.TOO_MANY_REQUESTS.value(), Duration.ofMillis(until - now));
+                }
+                next = (now << COUNT_BITS) | 1;
+            } else {
+                next = (Math.max(now, lastAllowed) << COUNT_BITS) | (count + 1);
+            }
+            if (state.compareAndSet(current, next)) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "cooldown(" + limit + " then " + Duration.ofMillis(backoffMillis) + ")";
+    }
+}
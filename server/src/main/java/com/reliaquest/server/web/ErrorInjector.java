@@ -0,0 +1,32 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Fails a fraction {@code rate} of requests with {@code status}, drawn independently per request.
+ */
+public class ErrorInjector implements RequestLimiter {
+
+    private final double rate;
+    private final Rejection failure;
+    private final SeededSequence random;
+
+    public ErrorInjector(double rate, int status, long seed) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("rate must be between 0 and 1");
+        }
+        this.rate = rate;
+        this.failure = new Rejection(status, null);
+        this.random = new SeededSequence(seed);
+    }
+
+    @Override
+    public Rejection check(HttpServletRequest request) {
+        return random.nextDouble() < rate ? failure : null;
+    }
+
+    @Override
+    public String toString() {
+        return "errors(" + rate + " as " + failure.status() + ")";
+    }
+}
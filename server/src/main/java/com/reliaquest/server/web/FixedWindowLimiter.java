@@ -0,0 +1,64 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Allows {@code limit} requests per window of {@code window}, counted from startup; the rest are rejected until the
+ * next window begins.
+ *
+ * <p>The window number and its count share one {@link AtomicLong}, updated by compare-and-set. A request that read
+ * the clock just before a newer window was opened is counted against the newer one rather than reopening its own.
+ */
+public class FixedWindowLimiter implements RequestLimiter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int limit;
+    private final long windowNanos;
+    private final long origin = System.nanoTime();
+    /** Window number above the count of requests allowed in it. */
+    private final AtomicLong state = new AtomicLong();
+
+    public FixedWindowLimiter(int limit, Duration window) {
+        if (limit < 1 || limit > COUNT_MASK) {
+            throw new IllegalArgumentException("limit must be between 1 and " + COUNT_MASK);
+        }
+        if (window.toMillis() < 1) {
+            throw new IllegalArgumentException("window must be at least 1ms");
+        }
+        this.limit = limit;
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    public Rejection check(HttpServletRequest request) {
+        final var now = System.nanoTime() - origin;
+        final var window = now / windowNanos;
+        while (true) {
+            final var current = state.get();
+            final var currentWindow = current >>> COUNT_BITS;
+            final long next;
+            if (window > currentWindow) {
+                next = (window << COUNT_BITS) | 1;
+            } else if ((current & COUNT_MASK) < limit) {
+                next = current + 1;
+            } else {
+                return new Rejection(
+                        HttpStatus.TOO_MANY_REQUESTS.value(),
+                        Duration.ofNanos((currentWindow + 1) * windowNanos - now));
+            }
+            if (state.compareAndSet(current, next)) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "fixed-window(" + limit + " per " + Duration.ofNanos(windowNanos) + ")";
+    }
+}
@@ -0,0 +1,93 @@
+package com.reliaquest.server.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Delays every request by a duration drawn from a {@link Distribution}, then lets it through. Delays are timed in
+ * {@code mock.limiter.delay}.
+ */
+public class LatencyInjector implements RequestLimiter {
+
+    private final Distribution distribution;
+    private final long minNanos;
+    private final long meanNanos;
+    private final long maxNanos;
+    private final double sigma;
+    private final SeededSequence random;
+    private final Timer delays;
+
+    /**
+     * @param min lower bound, added to every draw except {@link Distribution#FIXED}
+     * @param mean mean of the draws before they are capped at {@code max}
+     * @param sigma shape of {@link Distribution#LOG_NORMAL}; larger is a longer tail
+     */
+    public LatencyInjector(
+            Distribution distribution,
+            Duration min,
+            Duration mean,
+            Duration max,
+            double sigma,
+            long seed,
+            MeterRegistry meterRegistry) {
+        if (min.isNegative() || mean.compareTo(min) < 0 || max.compareTo(mean) < 0) {
+            throw new IllegalArgumentException("Latency bounds must satisfy 0 <= min <= mean <= max");
+        }
+        this.distribution = distribution;
+        this.minNanos = min.toNanos();
+        this.meanNanos = mean.toNanos();
+        this.maxNanos = max.toNanos();
+        this.sigma = sigma;
+        this.random = new SeededSequence(seed);
+        this.delays = Timer.builder("mock.limiter.delay")
+                .description("Latency injected before requests")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Rejection check(HttpServletRequest request) {
+        final var delay = Duration.ofNanos(nextDelayNanos());
+        delays.record(delay);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private long nextDelayNanos() {
+        final var spread = meanNanos - minNanos;
+        final double drawn =
+                switch (distribution) {
+                    case FIXED -> meanNanos;
+                    case UNIFORM -> minNanos + random.nextDouble() * (maxNanos - minNanos);
+                    case EXPONENTIAL -> minNanos - spread * Math.log(1 - random.nextDouble());
+                    case LOG_NORMAL -> {
+                        // Box-Muller; the median is scaled down so that the mean comes out at spread.
+                        final var normal = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                                * Math.cos(2 * Math.PI * random.nextDouble());
+                        yield minNanos + spread * Math.exp(sigma * normal - sigma * sigma / 2);
+                    }
+                };
+        return Math.min(maxNanos, Math.round(drawn));
+    }
+
+    @Override
+    public String toString() {
+        return "latency(" + distribution.name().toLowerCase(Locale.ROOT) + ", min " + Duration.ofNanos(minNanos)
+                + ", mean " + Duration.ofNanos(meanNanos) + ", max " + Duration.ofNanos(maxNanos) + ")";
+    }
+
+    public enum Distribution {
+        /** Always {@code mean}. */
+        FIXED,
+        /** Between {@code min} and {@code max}; {@code mean} is ignored. */
+        UNIFORM,
+        EXPONENTIAL,
+        LOG_NORMAL
+    }
+}
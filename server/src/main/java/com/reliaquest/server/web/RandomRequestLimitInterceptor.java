@@ -1,48 +1,60 @@
 package com.reliaquest.server.web;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.random.RandomGenerator;
-import lombok.Getter;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+/**
+ * Shapes traffic to the mock server by passing every request through a chain of {@link RequestLimiter}s, in order;
+ * the first to reject it answers it, and the ones after it aren't consulted. An empty chain lets everything through.
+ *
+ * <p>Counts every request it sees in {@code mock.limiter.requests}, tagged {@code outcome=allowed},
+ * {@code outcome=rejected} for the ones answered with 429, or {@code outcome=failed} for any other status a limiter
+ * answered with.
+ */
 public class RandomRequestLimitInterceptor implements HandlerInterceptor {
 
-    private static final int REQUEST_LIMIT = RandomGenerator.getDefault().nextInt(5, 10);
-    private static final Duration REQUEST_BACKOFF_DURATION =
-            Duration.ofSeconds(RandomGenerator.getDefault().nextInt(30, 90));
+    private final List<RequestLimiter> limiters;
+    private final Counter allowed;
+    private final Counter rejected;
+    private final Counter failed;
 
-    private final AtomicReference<RequestLimit> requestLimit = new AtomicReference<>(RequestLimit.init());
+    public RandomRequestLimitInterceptor(MeterRegistry meterRegistry, List<RequestLimiter> limiters) {
+        this.limiters = List.copyOf(limiters);
+        this.allowed = requestCounter(meterRegistry, "allowed");
+        this.rejected = requestCounter(meterRegistry, "rejected");
+        this.failed = requestCounter(meterRegistry, "failed");
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        if (requestLimit.get().getCount() >= REQUEST_LIMIT) {
-            if (Instant.now()
-                    .minus(REQUEST_BACKOFF_DURATION)
-                    .isBefore(requestLimit.get().getLastRequested())) {
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        for (RequestLimiter limiter : limiters) {
+            final var rejection = limiter.check(request);
+            if (rejection != null) {
+                response.setStatus(rejection.status());
+                if (rejection.retryAfter() != null) {
+                    response.setHeader(
+                            HttpHeaders.RETRY_AFTER,
+                            String.valueOf(Math.max(1, (rejection.retryAfter().toMillis() + 999) / 1000)));
+                }
+                (rejection.status() == HttpStatus.TOO_MANY_REQUESTS.value() ? rejected : failed).increment();
                 return false;
             }
-            if (Instant.now()
-                    .minus(REQUEST_BACKOFF_DURATION)
-                    .isAfter(requestLimit.get().getLastRequested())) {
-                requestLimit.set(RequestLimit.init());
-            }
-        } else {
-            requestLimit.getAndUpdate(
-                    currentRequestLimit -> new RequestLimit(currentRequestLimit.count() + 1, Instant.now()));
         }
 
+        allowed.increment();
         return true;
     }
 
-    private record RequestLimit(@Getter int count, @Getter Instant lastRequested) {
-        public static RequestLimit init() {
-            return new RequestLimit(0, Instant.now());
-        }
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mock.limiter.requests")
+                .description("Requests seen by the request limiter")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,22 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+
+/**
+ * One stage of the traffic shaping {@link RandomRequestLimitInterceptor} applies to every request. Implementations are
+ * called concurrently and keep their accounting lock-free.
+ */
+public interface RequestLimiter {
+
+    /**
+     * @return {@code null} to let the request through to the next stage, or how to answer it instead
+     */
+    Rejection check(HttpServletRequest request);
+
+    /**
+     * @param status the response status
+     * @param retryAfter sent as {@code Retry-After} when not {@code null}
+     */
+    record Rejection(int status, Duration retryAfter) {}
+}
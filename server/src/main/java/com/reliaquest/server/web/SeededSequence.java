@@ -0,0 +1,30 @@
+package com.reliaquest.server.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe stream of random numbers fixed by a seed, for limiters that draw per request. Every draw advances one
+ * shared counter and mixes it with the SplitMix64 finalizer, so concurrent callers never block each other and the
+ * n-th draw is the same on every run; which request gets the n-th draw still depends on scheduling.
+ */
+final class SeededSequence {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLong state;
+
+    SeededSequence(long seed) {
+        this.state = new AtomicLong(seed);
+    }
+
+    /** Uniform in {@code [0, 1)}. */
+    double nextDouble() {
+        return (mix(state.addAndGet(GOLDEN_GAMMA)) >>> 11) * 0x1.0p-53;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
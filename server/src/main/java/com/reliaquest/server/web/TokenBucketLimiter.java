@@ -0,0 +1,73 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Token buckets refilling at {@code rate} requests per second and holding up to {@code burst}, either one for all
+ * requests or one per stripe of clients. A client is named by the {@code clientHeader} request header, falling back
+ * to its address, and hashed to one of {@code stripes} buckets, so memory stays fixed however many clients there are
+ * and clients only share a bucket when they collide.
+ *
+ * <p>Each bucket is a single {@code long}, the generic cell rate algorithm's theoretical arrival time: the time the
+ * bucket would be full again. A request is allowed if that is at most {@code burst - 1} intervals ahead of now, and
+ * moves it one interval later with a compare-and-set, which is the same as taking a token.
+ */
+public class TokenBucketLimiter implements RequestLimiter {
+
+    private final double rate;
+    private final int burst;
+    private final String clientHeader;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long origin = System.nanoTime();
+    /** Theoretical arrival time of each bucket, in nanoseconds since {@link #origin}. */
+    private final AtomicLongArray arrivals;
+
+    /**
+     * @param stripes rounded up to a power of two; 1 for a single bucket
+     * @param clientHeader ignored with a single bucket
+     */
+    public TokenBucketLimiter(double rate, int burst, int stripes, String clientHeader) {
+        if (rate <= 0 || burst < 1 || stripes < 1) {
+            throw new IllegalArgumentException("rate, burst and stripes must be positive");
+        }
+        this.rate = rate;
+        this.burst = burst;
+        this.clientHeader = clientHeader;
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000 / rate));
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+        this.arrivals = new AtomicLongArray(stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1);
+    }
+
+    @Override
+    public Rejection check(HttpServletRequest request) {
+        final var now = System.nanoTime() - origin;
+        final var stripe = arrivals.length() == 1 ? 0 : stripe(request);
+        while (true) {
+            final var arrival = arrivals.get(stripe);
+            final var start = Math.max(arrival, now);
+            if (start - now > toleranceNanos) {
+                return new Rejection(
+                        HttpStatus.TOO_MANY_REQUESTS.value(), Duration.ofNanos(start - toleranceNanos - now));
+            }
+            if (arrivals.compareAndSet(stripe, arrival, start + intervalNanos)) {
+                return null;
+            }
+        }
+    }
+
+    private int stripe(HttpServletRequest request) {
+        final var header = clientHeader == null ? null : request.getHeader(clientHeader);
+        final var hash = (header != null ? header : request.getRemoteAddr()).hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (arrivals.length() - 1);
+    }
+
+    @Override
+    public String toString() {
+        return (arrivals.length() == 1 ? "token-bucket(" : "per-client(" + arrivals.length() + " stripes, ") + rate
+                + "/s, burst " + burst + ")";
+    }
+}
@@ -0,0 +1,103 @@
+package com.reliaquest.server;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.controller.MockEmployeeController;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeEventStream;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.MockEmployeeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+public class MockEmployeeControllerTest {
+
+    MockEmployeeStore store;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        store = new MockEmployeeStore(
+                IntStream.range(0, 5).mapToObj(i -> employee("Employee " + i)).toList(), 3);
+        mockMvc = MockMvcBuilders.standaloneSetup(new MockEmployeeController(
+                        new MockEmployeeService(new Faker(), store),
+                        new MockEmployeeEventStream(store, new SimpleMeterRegistry(), Duration.ofSeconds(5)),
+                        new ObjectMapper()))
+                .build();
+    }
+
+    @Test
+    public void testGetEmployeePage_ShouldFollowCursorToLastPage() throws Exception {
+        mockMvc.perform(get("/api/v1/employee").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.employees.length()").value(3))
+                .andExpect(jsonPath("$.data.next_cursor").value("2"));
+
+        mockMvc.perform(get("/api/v1/employee").param("limit", "3").param("cursor", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.employees[0].employee_name").value("Employee 3"))
+                .andExpect(jsonPath("$.data.employees.length()").value(2))
+                .andExpect(jsonPath("$.data.next_cursor").doesNotExist());
+    }
+
+    @Test
+    public void testGetEmployeePage_WithMalformedCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/employee").param("limit", "3").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor: not-a-cursor"));
+    }
+
+    @Test
+    public void testGetChanges_ShouldReturnChangesSinceVersion() throws Exception {
+        store.add(employee("Employee 5"));
+        store.removeFirstByName("Employee 0");
+
+        mockMvc.perform(get("/api/v1/employee/changes").param("since", "0").param("epoch", store.epoch()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(2))
+                .andExpect(jsonPath("$.data.changes[0].type").value("created"))
+                .andExpect(jsonPath("$.data.changes[0].employee.employee_name").value("Employee 5"))
+                .andExpect(jsonPath("$.data.changes[1].type").value("deleted"))
+                .andExpect(jsonPath("$.data.changes[1].version").value(2));
+    }
+
+    @Test
+    public void testGetChanges_WhenTrimmedOrOtherEpoch_ShouldReturnGone() throws Exception {
+        for (int i = 5; i < 9; i++) {
+            store.add(employee("Employee " + i));
+        }
+
+        mockMvc.perform(get("/api/v1/employee/changes").param("since", "0").param("epoch", store.epoch()))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.error").value("Changes since version 0 are no longer available"));
+        mockMvc.perform(get("/api/v1/employee/changes").param("since", "1").param("epoch", "restarted"))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/api/v1/employee/changes").param("since", "5").param("epoch", store.epoch()))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/api/v1/employee/changes").param("since", "1").param("epoch", store.epoch()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changes.length()").value(3));
+    }
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(50_000)
+                .age(30)
+                .title("Engineer")
+                .email(name.replace(' ', '.') + "@company.com")
+                .build();
+    }
+}
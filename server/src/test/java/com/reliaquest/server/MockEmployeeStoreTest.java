@@ -0,0 +1,171 @@
+package com.reliaquest.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class MockEmployeeStoreTest {
+
+    ExecutorService writers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        writers.shutdownNow();
+    }
+
+    @Test
+    public void testWrites_ShouldBumpVersionAndLogEveryChange() {
+        MockEmployeeStore store = new MockEmployeeStore(List.of(employee("Ann"), employee("Bob")), 100);
+        assertEquals(0, store.version());
+        assertTrue(store.changesSince(0).orElseThrow().changes().isEmpty());
+
+        MockEmployee carl = employee("Carl");
+        store.add(carl);
+        Optional<MockEmployee> removed = store.removeFirstByName("ANN");
+
+        assertEquals("Ann", removed.orElseThrow().getName());
+        assertEquals(2, store.version());
+        MockEmployeeChanges changes = store.changesSince(0).orElseThrow();
+        assertEquals(2, changes.version());
+        assertEquals(store.epoch(), changes.epoch());
+        assertEquals(
+                List.of(MockEmployeeChange.Type.CREATED, MockEmployeeChange.Type.DELETED),
+                changes.changes().stream().map(MockEmployeeChange::type).toList());
+        assertEquals(List.of("Bob", "Carl"), names(store.snapshot()));
+        assertTrue(store.changesSince(2).orElseThrow().changes().isEmpty());
+        assertTrue(store.changesSince(3).isEmpty());
+        assertThrows(IllegalStateException.class, () -> store.load(employee("Dora")));
+        assertTrue(store.changesSince(-1).isEmpty());
+    }
+
+    @Test
+    public void testRemoveFirstByName_ShouldRemoveEarliestMatchIgnoringCase() {
+        MockEmployee first = employee("Dana Scully");
+        MockEmployee second = employee("dana scully");
+        MockEmployeeStore store = new MockEmployeeStore(List.of(first, second));
+
+        assertEquals(first, store.removeFirstByName("DANA SCULLY").orElseThrow());
+        assertEquals(second, store.removeFirstByName("Dana Scully").orElseThrow());
+        assertTrue(store.removeFirstByName("Dana Scully").isEmpty());
+        assertEquals(0, store.size());
+        assertTrue(store.findById(first.getId()).isEmpty());
+    }
+
+    @Test
+    public void testPage_ShouldSkipRemovedEmployeesAndKeepCursors() {
+        MockEmployeeStore store = new MockEmployeeStore(0, 100);
+        for (int i = 0; i < 40; i++) {
+            store.load(employee("Employee " + i));
+        }
+        for (int i = 0; i < 40; i += 3) {
+            assertTrue(store.removeFirstByName("Employee " + i).isPresent());
+        }
+
+        List<MockEmployee> paged = new ArrayList<>();
+        MockEmployeeStore.Page page = store.page(null, 7);
+        paged.addAll(page.employees());
+        while (page.next() != null) {
+            assertEquals(7, page.employees().size());
+            page = store.page(page.next(), 7);
+            paged.addAll(page.employees());
+        }
+
+        assertEquals(26, store.size());
+        assertEquals(store.snapshot(), paged);
+        assertEquals(14, store.version());
+    }
+
+    @Test
+    public void testChangesSince_WhenTrimmed_ShouldBeEmpty() {
+        MockEmployeeStore store = new MockEmployeeStore(0, 3);
+        for (int i = 0; i < 5; i++) {
+            store.add(employee("Employee " + i));
+        }
+
+        assertTrue(store.changesSince(0).isEmpty());
+        assertTrue(store.changesSince(1).isEmpty());
+        assertEquals(
+                List.of(3L, 4L, 5L),
+                store.changesSince(2).orElseThrow().changes().stream()
+                        .map(MockEmployeeChange::version)
+                        .toList());
+        assertFalse(store.subscribe(1, change -> {}));
+    }
+
+    @Test
+    public void testConcurrentWrites_ShouldGetConsecutiveVersions() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        MockEmployeeStore store = new MockEmployeeStore(0, threads * perThread * 2);
+        ConcurrentLinkedQueue<MockEmployeeChange> pushed = new ConcurrentLinkedQueue<>();
+        assertTrue(store.subscribe(0, pushed::add));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            done.add(CompletableFuture.runAsync(
+                    () -> {
+                        await(start);
+                        for (int i = 0; i < perThread; i++) {
+                            store.add(employee("Employee " + thread + "-" + i));
+                            if (i % 2 == 1) {
+                                assertTrue(store.removeFirstByName("employee " + thread + "-" + (i - 1))
+                                        .isPresent());
+                            }
+                        }
+                    },
+                    writers));
+        }
+        start.countDown();
+        CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).get();
+
+        int writes = threads * (perThread + perThread / 2);
+        assertEquals(writes, store.version());
+        assertEquals(threads * perThread / 2, store.size());
+        assertEquals(store.size(), store.snapshot().size());
+        List<MockEmployeeChange> logged = store.changesSince(0).orElseThrow().changes();
+        assertEquals(List.copyOf(pushed), logged);
+        for (int i = 0; i < logged.size(); i++) {
+            assertEquals(i + 1, logged.get(i).version());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> names(List<MockEmployee> employees) {
+        return employees.stream().map(MockEmployee::getName).toList();
+    }
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(50_000)
+                .age(30)
+                .title("Engineer")
+                .email(name.replace(' ', '.') + "@company.com")
+                .build();
+    }
+}
@@ -0,0 +1,241 @@
+package com.reliaquest.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.web.CooldownLimiter;
+import com.reliaquest.server.web.ErrorInjector;
+import com.reliaquest.server.web.FixedWindowLimiter;
+import com.reliaquest.server.web.LatencyInjector;
+import com.reliaquest.server.web.RequestLimiter;
+import com.reliaquest.server.web.RequestLimiter.Rejection;
+import com.reliaquest.server.web.TokenBucketLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class RequestLimiterTest {
+
+    static final int THREADS = 8;
+
+    static final int REQUESTS_PER_THREAD = 500;
+
+    ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void testFixedWindow_WhenCalledConcurrently_ShouldAllowExactlyLimit() throws Exception {
+        FixedWindowLimiter limiter = new FixedWindowLimiter(100, Duration.ofMinutes(10));
+
+        List<Rejection> rejections = checkConcurrently(limiter, new MockHttpServletRequest());
+
+        assertEquals(THREADS * REQUESTS_PER_THREAD - 100, rejections.size());
+        for (Rejection rejection : rejections) {
+            assertEquals(429, rejection.status());
+            assertTrue(rejection.retryAfter().compareTo(Duration.ofMinutes(10)) <= 0);
+        }
+    }
+
+    @Test
+    public void testFixedWindow_ShouldAllowLimitAgainInNextWindow() throws Exception {
+        FixedWindowLimiter limiter = new FixedWindowLimiter(3, Duration.ofMillis(200));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Rejection rejection = null;
+        // The window may turn over while it is being used up, which only takes longer.
+        for (int i = 0; i < 10 && rejection == null; i++) {
+            rejection = limiter.check(request);
+        }
+        assertNotNull(rejection);
+
+        Thread.sleep(rejection.retryAfter().toMillis() + 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(limiter.check(request));
+        }
+        assertNotNull(limiter.check(request));
+    }
+
+    @Test
+    public void testTokenBucket_WhenCalledConcurrently_ShouldAllowExactlyBurst() throws Exception {
+        // One token every 100s, so none refill during the test.
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.01, 50, 1, null);
+
+        List<Rejection> rejections = checkConcurrently(limiter, new MockHttpServletRequest());
+
+        assertEquals(THREADS * REQUESTS_PER_THREAD - 50, rejections.size());
+        for (Rejection rejection : rejections) {
+            assertEquals(429, rejection.status());
+            assertTrue(rejection.retryAfter().compareTo(Duration.ofSeconds(100)) <= 0);
+        }
+    }
+
+    @Test
+    public void testTokenBucket_ShouldRefillAtRate() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(20, 2, 1, null);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        assertNull(limiter.check(request));
+        assertNull(limiter.check(request));
+
+        Rejection rejection = limiter.check(request);
+        assertNotNull(rejection);
+        assertTrue(rejection.retryAfter().compareTo(Duration.ofMillis(50)) <= 0);
+
+        Thread.sleep(rejection.retryAfter().toMillis() + 10);
+        assertNull(limiter.check(request));
+    }
+
+    @Test
+    public void testTokenBucket_PerClient_ShouldGiveEachClientItsOwnBurst() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.01, 2, 1024, "X-Client");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        first.addHeader("X-Client", "first");
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        second.addHeader("X-Client", "second");
+
+        assertNull(limiter.check(first));
+        assertNull(limiter.check(first));
+        assertNotNull(limiter.check(first));
+        assertNull(limiter.check(second));
+        assertNull(limiter.check(second));
+        assertNotNull(limiter.check(second));
+    }
+
+    @Test
+    public void testCooldown_WhenCalledConcurrently_ShouldAllowLimitThenWaitForBackoff() throws Exception {
+        CooldownLimiter limiter = new CooldownLimiter(20, Duration.ofMinutes(10));
+
+        List<Rejection> rejections = checkConcurrently(limiter, new MockHttpServletRequest());
+
+        assertEquals(THREADS * REQUESTS_PER_THREAD - 20, rejections.size());
+        for (Rejection rejection : rejections) {
+            assertEquals(429, rejection.status());
+            assertTrue(rejection.retryAfter().compareTo(Duration.ofMinutes(10)) <= 0);
+        }
+
+        CooldownLimiter shortBackoff = new CooldownLimiter(1, Duration.ofMillis(100));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        assertNull(shortBackoff.check(request));
+        Rejection rejection = shortBackoff.check(request);
+        assertNotNull(rejection);
+        Thread.sleep(rejection.retryAfter().toMillis() + 10);
+        assertNull(shortBackoff.check(request));
+    }
+
+    @Test
+    public void testErrorInjector_WithSameSeed_ShouldFailSameRequests() {
+        ErrorInjector first = new ErrorInjector(0.3, 503, 42);
+        ErrorInjector second = new ErrorInjector(0.3, 503, 42);
+        ErrorInjector otherSeed = new ErrorInjector(0.3, 503, 43);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        List<Rejection> failed = new ArrayList<>();
+        List<Rejection> failedOtherSeed = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Rejection rejection = first.check(request);
+            failed.add(rejection);
+            assertEquals(rejection, second.check(request));
+            failedOtherSeed.add(otherSeed.check(request));
+        }
+
+        List<Rejection> failures =
+                failed.stream().filter(rejection -> rejection != null).toList();
+        assertTrue(failures.size() > 250 && failures.size() < 350, "failures: " + failures.size());
+        assertTrue(failures.stream().allMatch(new Rejection(503, null)::equals));
+        assertNotEquals(failed, failedOtherSeed);
+    }
+
+    @Test
+    public void testErrorInjector_WhenCalledConcurrently_ShouldDrawSameSequence() throws Exception {
+        ErrorInjector sequential = new ErrorInjector(0.3, 503, 7);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        int expected = 0;
+        for (int i = 0; i < THREADS * REQUESTS_PER_THREAD; i++) {
+            expected += sequential.check(request) == null ? 0 : 1;
+        }
+
+        List<Rejection> rejections = checkConcurrently(new ErrorInjector(0.3, 503, 7), request);
+
+        assertEquals(expected, rejections.size());
+    }
+
+    @Test
+    public void testLatencyInjector_WithSameSeed_ShouldDrawSameDelays() {
+        SimpleMeterRegistry first = new SimpleMeterRegistry();
+        SimpleMeterRegistry second = new SimpleMeterRegistry();
+        SimpleMeterRegistry otherSeed = new SimpleMeterRegistry();
+        for (var registry : List.of(first, second, otherSeed)) {
+            LatencyInjector injector = new LatencyInjector(
+                    LatencyInjector.Distribution.LOG_NORMAL,
+                    Duration.ZERO,
+                    Duration.ofNanos(200_000),
+                    Duration.ofMillis(1),
+                    1.0,
+                    registry == otherSeed ? 43 : 42,
+                    registry);
+            for (int i = 0; i < 20; i++) {
+                assertNull(injector.check(new MockHttpServletRequest()));
+            }
+        }
+
+        assertEquals(20, first.get("mock.limiter.delay").timer().count());
+        assertEquals(totalNanos(first), totalNanos(second));
+        assertNotEquals(totalNanos(first), totalNanos(otherSeed));
+    }
+
+    private static double totalNanos(SimpleMeterRegistry registry) {
+        return registry.get("mock.limiter.delay").timer().totalTime(TimeUnit.NANOSECONDS);
+    }
+
+    /** Checks {@link #REQUESTS_PER_THREAD} requests from each of {@link #THREADS} threads, started together. */
+    private List<Rejection> checkConcurrently(RequestLimiter limiter, MockHttpServletRequest request) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        List<CompletableFuture<List<Rejection>>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            done.add(CompletableFuture.supplyAsync(
+                    () -> {
+                        await(start);
+                        List<Rejection> rejections = new ArrayList<>();
+                        for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                            Rejection rejection = limiter.check(request);
+                            if (rejection == null) {
+                                allowed.incrementAndGet();
+                            } else {
+                                rejections.add(rejection);
+                            }
+                        }
+                        return rejections;
+                    },
+                    callers));
+        }
+        start.countDown();
+        List<Rejection> rejections = new ArrayList<>();
+        for (CompletableFuture<List<Rejection>> future : done) {
+            rejections.addAll(future.get());
+        }
+        assertEquals(THREADS * REQUESTS_PER_THREAD, allowed.get() + rejections.size());
+        return rejections;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}